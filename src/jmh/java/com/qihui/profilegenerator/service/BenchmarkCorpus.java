@@ -0,0 +1,78 @@
+package com.qihui.profilegenerator.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试语料
+ * 简历文本和中英文YAML位于src/jmh/resources/corpus，PDF在初始化时由文本生成
+ */
+final class BenchmarkCorpus {
+
+    private static final int LINES_PER_PAGE = 52;
+    private static final int CHARS_PER_LINE = 100;
+
+    private BenchmarkCorpus() {
+    }
+
+    static String read(String name) throws IOException {
+        try (InputStream inputStream = new ClassPathResource("corpus/" + name).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 大模型输出：中文YAML、分隔符、英文YAML
+     */
+    static String llmOutput() throws IOException {
+        return read("profile-zh.yaml") + "---\n" + read("profile-en.yaml");
+    }
+
+    /**
+     * 将简历文本排版为PDF（Helvetica 10pt，长行自动折行）
+     */
+    static byte[] resumePdf(String resume) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : read(resume + ".txt").split("\n")) {
+            while (line.length() > CHARS_PER_LINE) {
+                int cut = line.lastIndexOf(' ', CHARS_PER_LINE);
+                cut = cut > 0 ? cut : CHARS_PER_LINE;
+                lines.add(line.substring(0, cut));
+                line = line.substring(cut).stripLeading();
+            }
+            lines.add(line);
+        }
+
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int start = 0; start < lines.size(); start += LINES_PER_PAGE) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.newLineAtOffset(50, 720);
+                    for (String line : lines.subList(start, Math.min(start + LINES_PER_PAGE, lines.size()))) {
+                        content.showText(line);
+                        content.newLineAtOffset(0, -12);
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 独立HTML渲染：进程内模板注入（java） 与 常驻Node渲染进程（node）
+ * 默认只运行java，需要对比时使用 -p renderer=java,node（要求本机安装Node.js并在项目根目录运行）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlRenderBenchmark {
+
+    private static final String KEY = "jmh-benchmark";
+
+    @Param({"java"})
+    public String renderer;
+
+    private StandaloneHtmlRenderer htmlRenderer;
+    private ProfileConfigs configs;
+
+    @Setup
+    public void setUp() throws IOException {
+        YamlConfigParser parser = new YamlConfigParser();
+        String zhYaml = BenchmarkCorpus.read("profile-zh.yaml");
+        String enYaml = BenchmarkCorpus.read("profile-en.yaml");
+        configs = new ProfileConfigs(KEY, zhYaml, enYaml, parser.parse(zhYaml), parser.parse(enYaml));
+
+        if (renderer.equals("node")) {
+            htmlRenderer = new NodeWorkerPoolHtmlRenderer(new SimpleMeterRegistry(), 1, 10000, 30,
+                    "src/main/resources/static/profile_website");
+        } else {
+            htmlRenderer = new TemplateHtmlRenderer(new ClassPathResource("static/profile_website/template.html"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (htmlRenderer instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Benchmark
+    public int render() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        htmlRenderer.render(configs, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int renderPage() throws IOException {
+        // 完整渲染并生成上传用的gzip结果
+        return htmlRenderer.renderPage(configs, null).gzip().length;
+    }
+}
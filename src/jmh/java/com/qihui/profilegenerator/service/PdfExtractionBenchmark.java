@@ -0,0 +1,73 @@
+package com.qihui.profilegenerator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
+import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * PDF文本提取：Spring AI逐页顺序提取 与 按页段并行提取
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    @Param({"resume-junior", "resume-senior", "resume-academic"})
+    public String resume;
+
+    private byte[] pdf;
+    private ThreadPoolTaskExecutor executor;
+    private PdfTextExtractor extractor;
+    private PdfDocumentReaderConfig config;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = BenchmarkCorpus.resumePdf(resume);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.initialize();
+        extractor = new PdfTextExtractor(executor, 200, 2, 60000);
+        config = PdfDocumentReaderConfig.builder()
+                .withPageTopMargin(70)
+                .withPageBottomMargin(70)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public String pagePdfDocumentReader() {
+        return new PagePdfDocumentReader(new ByteArrayResource(pdf), config).get().stream()
+                .map(Document::getText)
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Benchmark
+    public String pdfTextExtractor() throws IOException {
+        return extractor.extract(new ByteArrayResource(pdf));
+    }
+}
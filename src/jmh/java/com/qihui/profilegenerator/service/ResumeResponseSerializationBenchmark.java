@@ -0,0 +1,60 @@
+package com.qihui.profilegenerator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口响应DTO的JSON序列化
+ * profile：生成接口的返回值；content：携带整份简历文本的返回值
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeResponseSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResumeResponse profileResponse;
+    private ResumeResponse contentResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        profileResponse = ResumeResponse.successWithConfigAndHtml(
+                "个人档案配置文件已生成并保存，可以通过以下链接下载HTML文件",
+                new String[]{"/profile_website/config/alex/zh.yaml", "/profile_website/config/alex/en.yaml"},
+                "https://resume-config.oss-cn-hangzhou.aliyuncs.com/resumes/alex/alex.html"
+                        + "?Expires=1760000000&OSSAccessKeyId=LTAI5tExample&Signature=abcdefghijklmnopqrstuvwxyz%3D",
+                48213);
+        contentResponse = ResumeResponse.builder()
+                .success(true)
+                .content(BenchmarkCorpus.read("resume-senior.txt"))
+                .processingTimeMs(1520)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] profile() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(profileResponse);
+    }
+
+    @Benchmark
+    public byte[] content() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contentResponse);
+    }
+}
@@ -0,0 +1,82 @@
+package com.qihui.profilegenerator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大模型流式输出的YAML切分、解析和写入
+ * 按固定大小切成片段模拟流式输出，写入方式与生成流水线一致（每个文档一个文件，写入后立即解析）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YamlSplitBenchmark {
+
+    @Param({"16", "256"})
+    public int chunkSize;
+
+    private final YamlConfigParser parser = new YamlConfigParser();
+    private List<String> chunks;
+    private Path outputDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        String output = BenchmarkCorpus.llmOutput();
+        chunks = new ArrayList<>();
+        for (int i = 0; i < output.length(); i += chunkSize) {
+            chunks.add(output.substring(i, Math.min(i + chunkSize, output.length())));
+        }
+        outputDir = Files.createTempDirectory("yaml-bench-");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(outputDir);
+    }
+
+    @Benchmark
+    public long splitOnly(Blackhole blackhole) throws IOException {
+        YamlStreamSplitter splitter = new YamlStreamSplitter(
+                (index, document, endOfStream) -> blackhole.consume(document));
+        return feed(splitter);
+    }
+
+    @Benchmark
+    public long splitParseAndWrite(Blackhole blackhole) throws IOException {
+        YamlStreamSplitter splitter = new YamlStreamSplitter((index, document, endOfStream) -> {
+            Files.writeString(outputDir.resolve(index == 0 ? "zh.yaml" : "en.yaml"), document);
+            blackhole.consume(parser.parse(document));
+        });
+        return feed(splitter);
+    }
+
+    private long feed(YamlStreamSplitter splitter) throws IOException {
+        for (String chunk : chunks) {
+            splitter.accept(chunk);
+        }
+        splitter.finish();
+        return splitter.getTotalLength();
+    }
+}
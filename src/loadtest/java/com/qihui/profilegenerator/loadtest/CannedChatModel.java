@@ -0,0 +1,82 @@
+package com.qihui.profilegenerator.loadtest;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 返回固定内容的大模型替身
+ * 输出按固定字符数切分为token：第一个token前等待首字延迟，之后每个token等待token延迟加随机抖动，
+ * 模拟DashScope流式输出的耗时特征。不区分提示词，每次都返回同一份中英文YAML。
+ */
+final class CannedChatModel implements ChatModel {
+
+    private final List<String> tokens;
+    private final long firstTokenMs;
+    private final long tokenLatencyMs;
+    private final long jitterMs;
+
+    /**
+     * @param output 每次返回的完整内容
+     * @param charsPerToken 每个token的字符数
+     * @param firstTokenMs 首个token前的延迟（毫秒）
+     * @param tokenLatencyMs 相邻token之间的平均延迟（毫秒）
+     * @param jitterMs token延迟的随机抖动范围（毫秒，±）
+     */
+    CannedChatModel(String output, int charsPerToken, long firstTokenMs, long tokenLatencyMs, long jitterMs) {
+        List<String> split = new ArrayList<>(output.length() / charsPerToken + 1);
+        for (int start = 0; start < output.length(); start += charsPerToken) {
+            split.add(output.substring(start, Math.min(start + charsPerToken, output.length())));
+        }
+        this.tokens = List.copyOf(split);
+        this.firstTokenMs = firstTokenMs;
+        this.tokenLatencyMs = tokenLatencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long totalMs = firstTokenMs;
+        for (int i = 1; i < tokens.size(); i++) {
+            totalMs += tokenDelayMs();
+        }
+        try {
+            Thread.sleep(totalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("模拟大模型调用被中断", e);
+        }
+        return response(String.join("", tokens));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.range(0, tokens.size())
+                .concatMap(index -> {
+                    long delayMs = index == 0 ? firstTokenMs : tokenDelayMs();
+                    Mono<String> token = Mono.just(tokens.get(index));
+                    return delayMs > 0 ? token.delayElement(Duration.ofMillis(delayMs)) : token;
+                })
+                .map(CannedChatModel::response);
+    }
+
+    private long tokenDelayMs() {
+        if (jitterMs <= 0) {
+            return tokenLatencyMs;
+        }
+        return Math.max(0, tokenLatencyMs + ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1));
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
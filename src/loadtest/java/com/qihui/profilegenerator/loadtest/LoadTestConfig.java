@@ -0,0 +1,57 @@
+package com.qihui.profilegenerator.loadtest;
+
+import com.aliyun.oss.OSS;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 负载测试配置
+ * 用本地替身替换OSS客户端和大模型，OssService、ChatClient、并发限制和缓存等应用逻辑保持不变，
+ * 只在激活loadtest配置时生效。
+ */
+@Configuration
+@Profile("loadtest")
+@Slf4j
+public class LoadTestConfig {
+
+    /**
+     * 基于本地文件系统的OSS客户端
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public OSS localOssClient(@Value("${loadtest.oss.root:target/loadtest-oss}") String root,
+                              @Value("${loadtest.oss.request-latency-ms:20}") long requestLatencyMs) throws IOException {
+        return LocalOssClient.create(Paths.get(root), requestLatencyMs);
+    }
+
+    /**
+     * 流式返回固定中英文YAML的大模型
+     */
+    @Bean
+    @Primary
+    public ChatModel cannedChatModel(@Value("${loadtest.llm.chars-per-token:4}") int charsPerToken,
+                                     @Value("${loadtest.llm.first-token-ms:800}") long firstTokenMs,
+                                     @Value("${loadtest.llm.token-latency-ms:4}") long tokenLatencyMs,
+                                     @Value("${loadtest.llm.jitter-ms:2}") long jitterMs) throws IOException {
+        String output = LoadTestCorpus.llmOutput();
+        log.info("大模型替身已创建，输出长度: {}字符, 首字延迟: {}ms, token延迟: {}±{}ms",
+                output.length(), firstTokenMs, tokenLatencyMs, jitterMs);
+        return new CannedChatModel(output, charsPerToken, firstTokenMs, tokenLatencyMs, jitterMs);
+    }
+
+    /**
+     * 各阶段耗时记录，由负载测试驱动读取
+     */
+    @Bean
+    StageTimingRecorder stageTimingRecorder() {
+        return new StageTimingRecorder();
+    }
+}
@@ -0,0 +1,241 @@
+package com.qihui.profilegenerator.loadtest;
+
+import com.qihui.profilegenerator.ProfileGeneratorApplication;
+import com.qihui.profilegenerator.service.ProfileStage;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 负载测试驱动
+ * 默认以loadtest配置在进程内启动应用（随机端口，OSS和大模型使用本地替身），
+ * 用固定数量的并发客户端向 /api/resume/generate-profile 循环上传简历，
+ * 预热结束后统计端到端延迟的p50/p90/p99、吞吐量和各阶段耗时。
+ *
+ * <p>驱动参数：
+ * <ul>
+ *     <li>--requests=100 统计的请求数</li>
+ *     <li>--concurrency=8 并发客户端数</li>
+ *     <li>--warmup=10 预热请求数（不计入统计）</li>
+ *     <li>--resumes=resume-junior,resume-senior,resume-academic 轮流上传的简历</li>
+ *     <li>--url=http://host:port 压测已运行的实例，此时不启动应用，也没有阶段耗时</li>
+ * </ul>
+ * 其他参数原样传给Spring，例如 --loadtest.llm.token-latency-ms=10、--profile.llm.max-concurrency=16。
+ */
+public final class LoadTestDriver {
+
+    private static final String ENDPOINT = "/api/resume/generate-profile";
+    private static final String KEY_PREFIX = "loadtest-";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final List<byte[]> pdfs;
+    private final int concurrency;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private LoadTestDriver(String baseUrl, List<byte[]> pdfs, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.pdfs = pdfs;
+        this.concurrency = concurrency;
+    }
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            execute(args);
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+        // 依赖中的客户端会遗留非守护线程，显式退出
+        System.exit(status);
+    }
+
+    private static void execute(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            String[] pair = arg.startsWith("--") ? arg.substring(2).split("=", 2) : new String[]{arg};
+            switch (pair[0]) {
+                case "requests", "concurrency", "warmup", "resumes", "url" -> options.put(pair[0], pair[1]);
+                default -> springArgs.add(arg);
+            }
+        }
+        int requests = Integer.parseInt(options.getOrDefault("requests", "100"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        String[] resumes = options.getOrDefault("resumes", "resume-junior,resume-senior,resume-academic").split(",");
+
+        List<byte[]> pdfs = new ArrayList<>();
+        for (String resume : resumes) {
+            pdfs.add(LoadTestCorpus.resumePdf(resume.trim()));
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("url");
+        if (baseUrl == null) {
+            // 默认使用随机端口，避免与本机已运行的实例冲突
+            if (springArgs.stream().noneMatch(arg -> arg.startsWith("--server.port="))) {
+                springArgs.add("--server.port=0");
+            }
+            context = new SpringApplicationBuilder(ProfileGeneratorApplication.class)
+                    .profiles("loadtest")
+                    .run(springArgs.toArray(new String[0]));
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try {
+            LoadTestDriver driver = new LoadTestDriver(baseUrl, pdfs, concurrency);
+            StageTimingRecorder recorder = context != null ? context.getBean(StageTimingRecorder.class) : null;
+
+            System.out.printf("压测目标: %s%s, 并发: %d, 预热: %d, 请求: %d, 简历: %s%n",
+                    baseUrl, ENDPOINT, concurrency, warmup, requests, String.join(",", resumes));
+            if (warmup > 0) {
+                driver.run(warmup);
+            }
+            if (recorder != null) {
+                recorder.reset();
+            }
+            Result result = driver.run(requests);
+            result.print(recorder != null ? recorder.snapshot() : Map.of());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * 以固定并发执行指定数量的请求（闭环模型：每个客户端收到响应后立即发下一个请求）
+     */
+    private Result run(int requests) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        Result result = new Result();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    send(result);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void send(Result result) {
+        int n = sequence.getAndIncrement();
+        String key = KEY_PREFIX + n;
+        String boundary = UUID.randomUUID().toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ENDPOINT))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(boundary, key, pdfs.get(n % pdfs.size()))))
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() == 200) {
+                result.latencies.add(elapsed);
+            } else {
+                result.failures.computeIfAbsent(String.valueOf(response.statusCode()), s -> new LongAdder()).increment();
+            }
+        } catch (IOException e) {
+            result.failures.computeIfAbsent(e.getClass().getSimpleName(), s -> new LongAdder()).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] multipartBody(String boundary, String key, byte[] pdf) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 512);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"key\"\r\n\r\n"
+                + key + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + key + ".pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(pdf);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * 一轮压测的结果
+     */
+    private static final class Result {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        void print(Map<ProfileStage, long[]> stageTimings) {
+            long[] sorted = latencies.stream().mapToLong(nanos -> nanos / 1_000_000).sorted().toArray();
+            long failed = failures.values().stream().mapToLong(LongAdder::sum).sum();
+            double seconds = elapsedNanos / 1e9;
+
+            System.out.printf("%n完成: %d, 失败: %d%s, 耗时: %.1fs%n", sorted.length, failed, failureSummary(), seconds);
+            System.out.printf("吞吐量: %.2f req/s%n", sorted.length / seconds);
+            System.out.printf("端到端延迟(ms): %s%n", distribution(sorted));
+
+            if (stageTimings.isEmpty()) {
+                return;
+            }
+            System.out.println("各阶段耗时(ms):");
+            stageTimings.forEach((stage, values) -> {
+                long[] stageSorted = values.clone();
+                Arrays.sort(stageSorted);
+                System.out.printf("  %-10s n=%-6d %s%n", stage, stageSorted.length, distribution(stageSorted));
+            });
+        }
+
+        private String failureSummary() {
+            Map<String, Long> summary = new TreeMap<>();
+            failures.forEach((reason, count) -> summary.put(reason, count.sum()));
+            return summary.isEmpty() ? "" : " " + summary;
+        }
+
+        private static String distribution(long[] sorted) {
+            if (sorted.length == 0) {
+                return "-";
+            }
+            return String.format("p50=%d p90=%d p99=%d max=%d",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted[sorted.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
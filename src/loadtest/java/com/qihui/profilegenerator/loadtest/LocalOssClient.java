@@ -0,0 +1,285 @@
+package com.qihui.profilegenerator.loadtest;
+
+import com.aliyun.oss.ClientException;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSErrorCode;
+import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadResult;
+import com.aliyun.oss.model.CopyObjectResult;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
+import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.aliyun.oss.model.UploadPartResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 基于本地文件系统的OSS客户端替身
+ * 只实现应用用到的普通上传、分片上传、读取、复制、删除和URL签名，对象保存在 root/bucket/objectName，
+ * 上传时设置的Content-Encoding保存在内存中，读取时返回，
+ * 每次网络请求前等待固定延迟模拟往返耗时，签名是本地计算，不加延迟。
+ * 其余接口抛出UnsupportedOperationException。
+ */
+@Slf4j
+final class LocalOssClient implements InvocationHandler {
+
+    private final Path root;
+    private final Path uploadsDir;
+    private final long requestLatencyMs;
+    // 对象路径 -> 上传时设置的Content-Encoding
+    private final Map<Path, String> contentEncodings = new ConcurrentHashMap<>();
+
+    private LocalOssClient(Path root, long requestLatencyMs) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.uploadsDir = this.root.resolve(".uploads");
+        this.requestLatencyMs = requestLatencyMs;
+        Files.createDirectories(uploadsDir);
+    }
+
+    /**
+     * 创建本地OSS客户端
+     * @param root 对象存储根目录
+     * @param requestLatencyMs 每次网络请求的模拟延迟（毫秒）
+     * @return 实现OSS接口的替身
+     * @throws IOException 创建目录失败时抛出
+     */
+    static OSS create(Path root, long requestLatencyMs) throws IOException {
+        LocalOssClient handler = new LocalOssClient(root, requestLatencyMs);
+        log.info("本地OSS替身已创建，根目录: {}, 请求延迟: {}ms", handler.root, requestLatencyMs);
+        return (OSS) Proxy.newProxyInstance(OSS.class.getClassLoader(), new Class<?>[]{OSS.class}, handler);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "putObject" -> putObject(args);
+            case "getObject" -> getObject((String) args[0], (String) args[1]);
+            case "initiateMultipartUpload" -> initiate((InitiateMultipartUploadRequest) args[0]);
+            case "uploadPart" -> uploadPart((UploadPartRequest) args[0]);
+            case "completeMultipartUpload" -> complete((CompleteMultipartUploadRequest) args[0]);
+            case "abortMultipartUpload" -> abort((AbortMultipartUploadRequest) args[0]);
+            case "copyObject" -> copy(args);
+            case "deleteObject" -> delete((String) args[0], (String) args[1]);
+            case "generatePresignedUrl" -> presign(args);
+            case "getConnectionPoolStats", "shutdown" -> null;
+            case "toString" -> "LocalOssClient[" + root + "]";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException("本地OSS替身不支持: " + method);
+        };
+    }
+
+    private PutObjectResult putObject(Object[] args) {
+        Path target = objectPath((String) args[0], (String) args[1]);
+        simulateLatency();
+        try {
+            Files.createDirectories(target.getParent());
+            if (args[2] instanceof File file) {
+                Files.copy(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.copy((InputStream) args[2], target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new ClientException("写入本地对象失败: " + target, e);
+        }
+        String contentEncoding = args.length > 3 && args[3] instanceof ObjectMetadata metadata
+                ? metadata.getContentEncoding() : null;
+        if (contentEncoding != null) {
+            contentEncodings.put(target, contentEncoding);
+        } else {
+            contentEncodings.remove(target);
+        }
+        PutObjectResult result = new PutObjectResult();
+        result.setETag(UUID.randomUUID().toString());
+        return result;
+    }
+
+    private OSSObject getObject(String bucketName, String objectName) {
+        Path target = objectPath(bucketName, objectName);
+        simulateLatency();
+        try {
+            if (!Files.exists(target)) {
+                throw new OSSException("对象不存在: " + objectName, OSSErrorCode.NO_SUCH_KEY,
+                        null, null, null, null, null);
+            }
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(Files.size(target));
+            metadata.setLastModified(new Date(Files.getLastModifiedTime(target).toMillis()));
+            String contentEncoding = contentEncodings.get(target);
+            if (contentEncoding != null) {
+                metadata.setContentEncoding(contentEncoding);
+            }
+            OSSObject object = new OSSObject();
+            object.setBucketName(bucketName);
+            object.setKey(objectName);
+            object.setObjectMetadata(metadata);
+            object.setObjectContent(Files.newInputStream(target));
+            return object;
+        } catch (IOException e) {
+            throw new ClientException("读取本地对象失败: " + target, e);
+        }
+    }
+
+    private InitiateMultipartUploadResult initiate(InitiateMultipartUploadRequest request) {
+        simulateLatency();
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        try {
+            Files.createDirectories(uploadsDir.resolve(uploadId));
+        } catch (IOException e) {
+            throw new ClientException("创建分片目录失败: " + uploadId, e);
+        }
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setBucketName(request.getBucketName());
+        result.setKey(request.getKey());
+        result.setUploadId(uploadId);
+        return result;
+    }
+
+    private UploadPartResult uploadPart(UploadPartRequest request) {
+        Path part = partPath(request.getUploadId(), request.getPartNumber());
+        simulateLatency();
+        try {
+            byte[] data = request.getInputStream().readNBytes((int) request.getPartSize());
+            Files.write(part, data);
+        } catch (IOException e) {
+            throw new ClientException("写入分片失败: " + part, e);
+        }
+        UploadPartResult result = new UploadPartResult();
+        result.setPartNumber(request.getPartNumber());
+        result.setPartSize(request.getPartSize());
+        result.setETag(request.getUploadId() + "-" + request.getPartNumber());
+        return result;
+    }
+
+    private CompleteMultipartUploadResult complete(CompleteMultipartUploadRequest request) {
+        Path target = objectPath(request.getBucketName(), request.getKey());
+        simulateLatency();
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = Files.newOutputStream(target)) {
+                for (PartETag partETag : request.getPartETags()) {
+                    Files.copy(partPath(request.getUploadId(), partETag.getPartNumber()), out);
+                }
+            }
+            deleteRecursively(uploadsDir.resolve(request.getUploadId()));
+        } catch (IOException e) {
+            throw new ClientException("合并分片失败: " + target, e);
+        }
+        CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+        result.setBucketName(request.getBucketName());
+        result.setKey(request.getKey());
+        result.setETag(request.getUploadId());
+        return result;
+    }
+
+    private Object abort(AbortMultipartUploadRequest request) {
+        simulateLatency();
+        try {
+            deleteRecursively(uploadsDir.resolve(request.getUploadId()));
+        } catch (IOException e) {
+            throw new ClientException("删除分片失败: " + request.getUploadId(), e);
+        }
+        return null;
+    }
+
+    private CopyObjectResult copy(Object[] args) {
+        Path source = objectPath((String) args[0], (String) args[1]);
+        Path target = objectPath((String) args[2], (String) args[3]);
+        simulateLatency();
+        try {
+            if (!Files.exists(source)) {
+                throw new OSSException("对象不存在: " + args[1], OSSErrorCode.NO_SUCH_KEY,
+                        null, null, null, null, null);
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ClientException("复制本地对象失败: " + source, e);
+        }
+        String contentEncoding = contentEncodings.get(source);
+        if (contentEncoding != null) {
+            contentEncodings.put(target, contentEncoding);
+        } else {
+            contentEncodings.remove(target);
+        }
+        CopyObjectResult result = new CopyObjectResult();
+        result.setEtag(UUID.randomUUID().toString());
+        return result;
+    }
+
+    private Object delete(String bucketName, String objectName) {
+        simulateLatency();
+        try {
+            Files.deleteIfExists(objectPath(bucketName, objectName));
+        } catch (IOException e) {
+            throw new ClientException("删除本地对象失败: " + objectName, e);
+        }
+        return null;
+    }
+
+    private URL presign(Object[] args) {
+        Path target = objectPath((String) args[0], (String) args[1]);
+        long expires = ((Date) args[2]).getTime() / 1000;
+        try {
+            return URI.create(target.toUri() + "?Expires=" + expires).toURL();
+        } catch (MalformedURLException e) {
+            throw new ClientException("生成本地URL失败: " + target, e);
+        }
+    }
+
+    private Path objectPath(String bucketName, String objectName) {
+        return root.resolve(bucketName).resolve(objectName);
+    }
+
+    private Path partPath(String uploadId, int partNumber) {
+        return uploadsDir.resolve(uploadId).resolve(String.format("part-%05d", partNumber));
+    }
+
+    private void simulateLatency() {
+        if (requestLatencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(requestLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("OSS请求被中断", e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.qihui.profilegenerator.loadtest;
+
+import com.qihui.profilegenerator.service.ProfileProgressListener;
+import com.qihui.profilegenerator.service.ProfileStage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 记录流水线各阶段的耗时
+ * 作为全局进度观察者注册，同一次生成的SIGN和RENDER在不同线程上报，记录是线程安全的
+ */
+final class StageTimingRecorder implements ProfileProgressListener {
+
+    private final Map<ProfileStage, Queue<Long>> timings = new EnumMap<>(ProfileStage.class);
+
+    StageTimingRecorder() {
+        for (ProfileStage stage : ProfileStage.values()) {
+            timings.put(stage, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    @Override
+    public void onStageCompleted(ProfileStage stage, long elapsedMs) {
+        timings.get(stage).add(elapsedMs);
+    }
+
+    /**
+     * 清空已记录的耗时（预热结束后调用）
+     */
+    void reset() {
+        timings.values().forEach(Queue::clear);
+    }
+
+    /**
+     * 获取各阶段已记录的耗时
+     * @return 阶段到耗时数组（毫秒）的映射，按阶段顺序
+     */
+    Map<ProfileStage, long[]> snapshot() {
+        Map<ProfileStage, long[]> snapshot = new EnumMap<>(ProfileStage.class);
+        timings.forEach((stage, values) ->
+                snapshot.put(stage, values.stream().mapToLong(Long::longValue).toArray()));
+        return snapshot;
+    }
+}
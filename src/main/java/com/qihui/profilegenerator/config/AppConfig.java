@@ -2,33 +2,37 @@ package com.qihui.profilegenerator.config;
 
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
-import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AppConfig {
+    /**
+     * 简历转换使用的模型参数，同时参与转换结果缓存键的计算
+     */
     @Bean
-    public ChatClient chatClient(ChatClient.Builder chatClientBuilder) {
+    public DashScopeChatOptions conversionChatOptions() {
+        return DashScopeChatOptions.builder()
+                .withTopP(0.7)
+                .withMaxToken(8192)
+                .build();
+    }
+
+    /**
+     * 简历转换使用的ChatClient
+     * 每次转换都是独立的一次性调用，不需要对话上下文，因此不配置 Chat Memory，
+     * 避免提示词和简历内容在内存中无限累积。
+     */
+    @Bean
+    public ChatClient chatClient(ChatClient.Builder chatClientBuilder, DashScopeChatOptions conversionChatOptions) {
         return chatClientBuilder
-                // 实现 Chat Memory 的 Advisor
-                // 在使用 Chat Memory 时，需要指定对话 ID，以便 Spring AI 处理上下文。
-                .defaultAdvisors(
-                        new MessageChatMemoryAdvisor(new InMemoryChatMemory())
-                )
                 // 实现 Logger 的 Advisor
                 .defaultAdvisors(
                         new SimpleLoggerAdvisor()
                 )
                 // 设置 ChatClient 中 ChatModel 的 Options 参数
-                .defaultOptions(
-                        DashScopeChatOptions.builder()
-                                .withTopP(0.7)
-                                .withMaxToken(8192)
-                                .build()
-                )
+                .defaultOptions(conversionChatOptions)
                 .build();
     }
 }
@@ -0,0 +1,145 @@
+package com.qihui.profilegenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池配置
+ * 处理流水线中可以并行执行的分支各自使用独立的有界线程池。
+ * spring.threads.virtual.enabled为true时，HTTP请求和I/O分支运行在虚拟线程上；
+ * PDF解析属于CPU密集任务，异步任务线程池用于限制同时执行的流水线数量，两者始终使用平台线程。
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * OSS上传线程池，分片并行上传，上传与文本提取并行执行，也用于流水线中的其他I/O分支
+     * 开启虚拟线程时每个任务使用一个虚拟线程，并发数仍限制为max-size（受OSS连接池约束），超出时提交方等待
+     */
+    @Bean
+    public AsyncTaskExecutor ossUploadExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${profile.executor.oss-upload.core-size:4}") int coreSize,
+            @Value("${profile.executor.oss-upload.max-size:16}") int maxSize,
+            @Value("${profile.executor.oss-upload.queue-capacity:100}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("oss-upload-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxSize);
+            executor.setTaskTerminationTimeout(30000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("oss-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 异步生成任务线程池，限制同时执行的流水线数量，与HTTP并发数相互独立
+     */
+    @Bean
+    public ThreadPoolTaskExecutor profileJobExecutor(
+            @Value("${profile.executor.jobs.pool-size:4}") int poolSize,
+            @Value("${profile.executor.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("profile-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * 异步任务SSE事件推送线程池，客户端接收慢时只占用推送线程，不阻塞流水线
+     * 开启虚拟线程时每个推送任务使用一个虚拟线程；否则使用有界线程池，队列满时断开订阅
+     * 不设置并发上限，提交任务时不会等待
+     */
+    @Bean
+    public AsyncTaskExecutor profileEventExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${profile.executor.events.pool-size:4}") int poolSize,
+            @Value("${profile.executor.events.queue-capacity:1000}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("profile-event-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("profile-event-");
+        return executor;
+    }
+
+    /**
+     * 批量接收线程池，每个批量请求占用一个线程依次接收条目，请求线程直接返回响应流
+     * 接收时等待OSS上传线程池中的分片，因此与其分开，避免互相占满
+     * 开启虚拟线程时每个批量请求使用一个虚拟线程；否则使用有界线程池，队列满时拒绝请求
+     */
+    @Bean
+    public AsyncTaskExecutor profileBatchReceiveExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${profile.executor.batch-receive.pool-size:4}") int poolSize,
+            @Value("${profile.executor.batch-receive.queue-capacity:20}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("profile-batch-receive-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("profile-batch-receive-");
+        return executor;
+    }
+
+    /**
+     * 批量生成线程池，线程数即同时处理的条目数，各阶段的并发再由阶段闸门限制
+     */
+    @Bean
+    public ThreadPoolTaskExecutor profileBatchExecutor(
+            @Value("${profile.executor.batch.pool-size:8}") int poolSize,
+            @Value("${profile.executor.batch.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("profile-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * PDF文本提取线程池，按页段并行解析；属于CPU密集任务，默认线程数等于CPU核数
+     * 队列满时由提交线程自己执行，形成自然的背压
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pdfExtractExecutor(
+            @Value("${profile.executor.pdf-extract.pool-size:0}") int poolSize,
+            @Value("${profile.executor.pdf-extract.queue-capacity:200}") int queueCapacity) {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-extract-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.qihui.profilegenerator.config;
+
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 阿里云OSS客户端配置
+ * 整个应用共享一个带连接池的OSS客户端，随Spring容器关闭而释放
+ */
+@Configuration
+@Slf4j
+public class OssConfig {
+
+    // 连接池统计格式: [leased: 0; pending: 0; available: 0; max: 128]
+    private static final Pattern POOL_STAT_PATTERN = Pattern.compile("(leased|pending|available|max): (\\d+)");
+
+    @Value("${aliyun.oss.endpoint}")
+    private String endpoint;
+
+    @Value("${aliyun.oss.access-key-id}")
+    private String accessKeyId;
+
+    @Value("${aliyun.oss.access-key-secret}")
+    private String accessKeySecret;
+
+    @Value("${aliyun.oss.client.max-connections:128}")
+    private int maxConnections;
+
+    @Value("${aliyun.oss.client.connection-timeout-ms:5000}")
+    private int connectionTimeoutMs;
+
+    @Value("${aliyun.oss.client.socket-timeout-ms:30000}")
+    private int socketTimeoutMs;
+
+    @Value("${aliyun.oss.client.connection-request-timeout-ms:3000}")
+    private int connectionRequestTimeoutMs;
+
+    @Value("${aliyun.oss.client.idle-connection-time-ms:60000}")
+    private long idleConnectionTimeMs;
+
+    @Value("${aliyun.oss.client.connection-ttl-ms:-1}")
+    private long connectionTtlMs;
+
+    @Value("${aliyun.oss.client.max-error-retry:3}")
+    private int maxErrorRetry;
+
+    /**
+     * 共享的OSS客户端，容器关闭时调用shutdown释放连接池
+     */
+    @Bean(destroyMethod = "shutdown")
+    public OSS ossClient(MeterRegistry meterRegistry) {
+        ClientBuilderConfiguration configuration = new ClientBuilderConfiguration();
+        configuration.setMaxConnections(maxConnections);
+        configuration.setConnectionTimeout(connectionTimeoutMs);
+        configuration.setSocketTimeout(socketTimeoutMs);
+        configuration.setConnectionRequestTimeout(connectionRequestTimeoutMs);
+        // 空闲连接由SDK的回收线程定期清理
+        configuration.setUseReaper(true);
+        configuration.setIdleConnectionTime(idleConnectionTimeMs);
+        configuration.setConnectionTTL(connectionTtlMs);
+        configuration.setMaxErrorRetry(maxErrorRetry);
+
+        OSS ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret, configuration);
+        log.info("OSS客户端已创建，最大连接数: {}, 连接超时: {}ms, Socket超时: {}ms",
+                maxConnections, connectionTimeoutMs, socketTimeoutMs);
+
+        registerPoolMetrics(ossClient, meterRegistry);
+        return ossClient;
+    }
+
+    /**
+     * 注册连接池使用情况指标
+     */
+    private void registerPoolMetrics(OSS ossClient, MeterRegistry meterRegistry) {
+        for (String state : new String[]{"leased", "pending", "available", "max"}) {
+            Gauge.builder("oss.client.pool.connections", ossClient, client -> readPoolStat(client, state))
+                    .tag("state", state)
+                    .description("OSS客户端连接池连接数")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double readPoolStat(OSS ossClient, String state) {
+        String stats = ossClient.getConnectionPoolStats();
+        if (stats == null) {
+            return Double.NaN;
+        }
+        Matcher matcher = POOL_STAT_PATTERN.matcher(stats);
+        while (matcher.find()) {
+            if (matcher.group(1).equals(state)) {
+                return Double.parseDouble(matcher.group(2));
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,116 @@
+package com.qihui.profilegenerator.controller;
+
+import com.qihui.profilegenerator.service.ProfileBatch;
+import com.qihui.profilegenerator.service.ProfileBatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 批量生成接口
+ * 一次上传多份简历，每份完成后以一行NDJSON返回结果，最后一行为汇总。
+ * 请求体在进入接口前已由Spring完整解析，接口立即返回响应流，条目在后台依次接收并提交。
+ */
+@RestController
+@RequestMapping("/api/resume/batch")
+@Slf4j
+public class BatchProfileController {
+
+    private final ProfileBatchService profileBatchService;
+    // 在后台依次接收条目的线程池
+    private final AsyncTaskExecutor profileBatchReceiveExecutor;
+    private final long timeoutMs;
+
+    public BatchProfileController(ProfileBatchService profileBatchService,
+                                  AsyncTaskExecutor profileBatchReceiveExecutor,
+                                  @Value("${profile.batch.timeout-ms:1800000}") long timeoutMs) {
+        this.profileBatchService = profileBatchService;
+        this.profileBatchReceiveExecutor = profileBatchReceiveExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * 批量生成个人主页
+     * 通过files上传多个PDF（keys按顺序指定每个文件的key，不指定时使用文件名），
+     * 或通过archive上传包含PDF的ZIP（key使用文件名），两者可以同时使用
+     *
+     * @param files 上传的简历文件（PDF格式）
+     * @param keys 与files一一对应的key
+     * @param archive 包含简历的ZIP文件
+     * @param timings 是否在每个条目的结果中返回各阶段耗时
+     * @return NDJSON结果流
+     */
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> generateBatch(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "keys", required = false) List<String> keys,
+            @RequestParam(value = "archive", required = false) MultipartFile archive,
+            @RequestParam(value = "timings", defaultValue = "false") boolean timings) {
+        boolean hasFiles = files != null && !files.isEmpty();
+        if (!hasFiles && (archive == null || archive.isEmpty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请通过files或archive上传简历");
+        }
+        if (keys != null && !keys.isEmpty() && (!hasFiles || keys.size() != files.size())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "keys的数量必须与files一致");
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        ProfileBatch batch = profileBatchService.open(emitter, timings);
+        // 响应流结束前上传的临时文件不会被清理，后台线程可以继续读取
+        try {
+            profileBatchReceiveExecutor.execute(() -> submitAll(batch, files, keys, archive));
+        } catch (RejectedExecutionException e) {
+            log.warn("批量接收线程池已满，拒绝批量请求");
+            profileBatchService.reject(batch, null, "服务繁忙，请稍后重试");
+            batch.seal();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * 逐个接收并提交条目，每个条目接收完就开始生成，不等其余条目接收完
+     */
+    private void submitAll(ProfileBatch batch, List<MultipartFile> files, List<String> keys, MultipartFile archive) {
+        boolean hasFiles = files != null && !files.isEmpty();
+        try {
+            if (hasFiles) {
+                for (int i = 0; i < files.size(); i++) {
+                    MultipartFile file = files.get(i);
+                    ResumeController.logFileInfo(file);
+                    String key = keys != null && !keys.isEmpty()
+                            ? keys.get(i) : ProfileBatchService.keyFromFileName(file.getOriginalFilename());
+                    try (InputStream inputStream = file.getInputStream()) {
+                        profileBatchService.submit(batch, key, file.getOriginalFilename(), inputStream);
+                    }
+                }
+            }
+            if (archive != null && !archive.isEmpty()) {
+                ResumeController.logFileInfo(archive);
+                try (InputStream inputStream = archive.getInputStream()) {
+                    profileBatchService.submitArchive(batch, inputStream);
+                }
+            }
+        } catch (IOException e) {
+            // 已提交的条目继续执行，结果仍然按行返回
+            log.error("读取批量上传内容失败: {}", e.getMessage(), e);
+            profileBatchService.reject(batch, null, "读取上传内容失败: " + e.getMessage());
+        } finally {
+            batch.seal();
+        }
+    }
+}
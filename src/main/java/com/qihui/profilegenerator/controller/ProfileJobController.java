@@ -0,0 +1,109 @@
+package com.qihui.profilegenerator.controller;
+
+import com.qihui.profilegenerator.dto.ProfileJobResponse;
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import com.qihui.profilegenerator.service.IngestedUpload;
+import com.qihui.profilegenerator.service.ProfileGenerationService;
+import com.qihui.profilegenerator.service.ProfileJob;
+import com.qihui.profilegenerator.service.ProfileJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 异步生成任务接口
+ * 提交后立即返回任务ID，可轮询任务状态或通过SSE订阅阶段进度
+ */
+@RestController
+@RequestMapping("/api/resume/jobs")
+@Slf4j
+public class ProfileJobController {
+
+    private final ProfileGenerationService profileGenerationService;
+    private final ProfileJobService profileJobService;
+    private final long sseTimeoutMs;
+
+    public ProfileJobController(ProfileGenerationService profileGenerationService,
+                                ProfileJobService profileJobService,
+                                @Value("${profile.jobs.sse-timeout-ms:600000}") long sseTimeoutMs) {
+        this.profileGenerationService = profileGenerationService;
+        this.profileJobService = profileJobService;
+        this.sseTimeoutMs = sseTimeoutMs;
+    }
+
+    /**
+     * 提交个人主页生成任务
+     *
+     * @param key  用户指定的唯一标识
+     * @param file 上传的简历文件（PDF格式）
+     * @return 任务状态
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(
+            @RequestParam("key") String key,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            ResumeController.logFileInfo(file);
+            profileGenerationService.validateKey(key);
+
+            IngestedUpload upload;
+            try (InputStream inputStream = file.getInputStream()) {
+                upload = profileGenerationService.ingest(key, inputStream);
+            }
+            try {
+                ProfileJob job = profileJobService.submit(key, upload);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+            } catch (RejectedExecutionException e) {
+                profileGenerationService.discard(upload);
+                throw e;
+            }
+        } catch (IllegalArgumentException e) {
+            log.error("参数错误: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ResumeResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            log.warn("生成任务队列已满，拒绝任务: {}", key);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(ResumeResponse.error("服务繁忙，请稍后重试"));
+        } catch (IOException e) {
+            log.error("读取上传文件失败: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(ResumeResponse.error("文件处理失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询任务状态
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProfileJobResponse> getJob(@PathVariable("jobId") String jobId) {
+        return profileJobService.findJob(jobId)
+                .map(job -> ResponseEntity.ok(job.toResponse()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 通过SSE订阅任务的阶段变化和耗时
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobEvents(@PathVariable("jobId") String jobId) {
+        ProfileJob job = profileJobService.findJob(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "任务不存在: " + jobId));
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        job.subscribe(emitter);
+        return emitter;
+    }
+}
@@ -0,0 +1,163 @@
+package com.qihui.profilegenerator.controller;
+
+import com.qihui.profilegenerator.service.ProfileGenerationService;
+import com.qihui.profilegenerator.service.ProfilePageCache;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 个人主页访问接口
+ * 从本地页面缓存返回已发布的HTML，支持ETag/Last-Modified条件请求和Range请求，
+ * 客户端接受gzip时直接返回预先压缩的内容。
+ */
+@RestController
+@AllArgsConstructor
+@Slf4j
+public class ProfilePageController {
+
+    private static final MediaType HTML_UTF8 = MediaType.parseMediaType("text/html;charset=UTF-8");
+
+    private final ProfileGenerationService profileGenerationService;
+    private final ProfilePageCache profilePageCache;
+
+    /**
+     * 获取个人主页
+     * 有Range请求头时按未压缩的HTML返回部分内容，只支持单个区间，多个区间时返回完整内容
+     *
+     * @param key 用户指定的唯一标识
+     * @param request 当前请求，用于条件请求判断
+     * @return 个人主页HTML
+     */
+    @GetMapping("/p/{key}")
+    public ResponseEntity<byte[]> page(@PathVariable("key") String key, WebRequest request) {
+        ProfilePageCache.ProfilePage page;
+        try {
+            profileGenerationService.validateKey(key);
+            page = profilePageCache.get(key)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "个人主页不存在: " + key));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IOException e) {
+            log.error("读取个人主页失败: {}", e.getMessage(), e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "读取个人主页失败");
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        boolean gzip = rangeHeader == null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // 压缩和未压缩的内容是不同的表示，使用不同的实体标签
+        String etag = "\"" + page.etag() + (gzip ? "-gzip" : "") + "\"";
+        // 命中If-None-Match/If-Modified-Since时已设置304，If-Match/If-Unmodified-Since不满足时已设置412
+        if (request.checkNotModified(etag, page.lastModified())) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(HTML_UTF8);
+        headers.setETag(etag);
+        headers.setLastModified(page.lastModified());
+        // 修改配置后会重新发布，每次使用前都要向服务端确认
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ResponseEntity.ok().headers(headers).body(page.gzip());
+        }
+        byte[] html = page.html();
+        if (rangeHeader == null || !ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, page.lastModified())) {
+            return ResponseEntity.ok().headers(headers).body(html);
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok().headers(headers).body(html);
+        }
+        if (ranges.size() != 1) {
+            return ResponseEntity.ok().headers(headers).body(html);
+        }
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(html.length);
+            end = ranges.get(0).getRangeEnd(html.length);
+        } catch (IllegalArgumentException e) {
+            start = html.length;
+            end = html.length;
+        }
+        if (start >= html.length || start > end) {
+            // 区间超出内容长度
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + html.length)
+                    .build();
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + html.length);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                .body(Arrays.copyOfRange(html, (int) start, (int) end + 1));
+    }
+
+    /**
+     * 判断客户端是否接受gzip编码（q=0表示明确拒绝）
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim().replace(" ", "");
+                if (param.matches("q=0(\\.0*)?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range与当前内容一致时才按区间返回，否则返回完整内容
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range要求强比较，弱标签不匹配
+            return ifRange.equals(etag);
+        }
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() == lastModified;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
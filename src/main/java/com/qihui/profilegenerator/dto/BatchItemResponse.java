@@ -0,0 +1,70 @@
+package com.qihui.profilegenerator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 批量生成中单个条目的结果，每个条目完成后作为一行NDJSON输出
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+    /**
+     * 行类型，固定为item
+     */
+    @Builder.Default
+    private String type = "item";
+
+    /**
+     * 条目在请求中的序号（从0开始）
+     */
+    private int index;
+
+    /**
+     * 用户指定的唯一标识
+     */
+    private String key;
+
+    /**
+     * 上传的文件名
+     */
+    private String fileName;
+
+    /**
+     * 是否成功
+     */
+    private boolean success;
+
+    /**
+     * 错误消息（如果有）
+     */
+    private String error;
+
+    /**
+     * HTML文件下载URL
+     */
+    private String htmlUrl;
+
+    /**
+     * 生成的配置文件路径
+     */
+    private String[] configFiles;
+
+    /**
+     * 处理时间（毫秒），从条目开始执行计算，不包含排队时间
+     */
+    private Long processingTimeMs;
+
+    /**
+     * 各阶段耗时（毫秒），只在请求参数timings=true时返回
+     */
+    private Map<String, Long> stageTimings;
+}
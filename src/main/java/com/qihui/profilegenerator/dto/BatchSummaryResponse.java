@@ -0,0 +1,41 @@
+package com.qihui.profilegenerator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量生成的汇总结果，所有条目结束后作为最后一行NDJSON输出
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSummaryResponse {
+    /**
+     * 行类型，固定为summary
+     */
+    @Builder.Default
+    private String type = "summary";
+
+    /**
+     * 条目总数
+     */
+    private int total;
+
+    /**
+     * 成功条目数
+     */
+    private int succeeded;
+
+    /**
+     * 失败条目数
+     */
+    private int failed;
+
+    /**
+     * 整个批次的处理时间（毫秒）
+     */
+    private long processingTimeMs;
+}
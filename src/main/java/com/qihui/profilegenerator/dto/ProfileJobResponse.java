@@ -0,0 +1,57 @@
+package com.qihui.profilegenerator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 异步生成任务状态DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileJobResponse {
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 用户指定的唯一标识
+     */
+    private String key;
+
+    /**
+     * 任务状态（QUEUED、RUNNING、SUCCEEDED、FAILED）
+     */
+    private String status;
+
+    /**
+     * 当前执行中的阶段
+     */
+    private String currentStage;
+
+    /**
+     * 已完成阶段的耗时（毫秒）
+     */
+    private Map<String, Long> stageTimings;
+
+    /**
+     * 生成结果（任务结束后）
+     */
+    private ResumeResponse result;
+
+    /**
+     * 错误消息（如果有）
+     */
+    private String error;
+
+    /**
+     * 任务创建时间戳
+     */
+    private long createdAt;
+}
@@ -1,15 +1,18 @@
 package com.qihui.profilegenerator.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * 简历处理响应DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ResumeResponse {
@@ -42,6 +45,12 @@ public class ResumeResponse {
      * HTML文件下载URL（如果有）
      */
     private String htmlUrl;
+
+    /**
+     * 各阶段耗时（毫秒），按阶段顺序；同步生成接口只在请求参数timings=true时返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Long> stageTimings;
     
     /**
      * 创建成功响应（用于配置和HTML生成）
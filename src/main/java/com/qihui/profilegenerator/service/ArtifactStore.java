@@ -0,0 +1,89 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 生成过程中的中间产物存储（如每个key的YAML配置）
+ * 按key和名称保存，同一名称再次写入时整体替换，也可以整体替换一个key的所有产物；提供按key的锁，用于对同一key的多个产物做一致的读改写
+ */
+public interface ArtifactStore {
+
+    /**
+     * 保存产物，替换同名的旧内容
+     * @param key 用户指定的唯一标识
+     * @param name 产物名称，如zh.yaml
+     * @param content 产物内容，保存后调用方不能再修改
+     * @throws IOException 写入溢出文件失败时抛出
+     */
+    void put(String key, String name, byte[] content) throws IOException;
+
+    /**
+     * 没有同名产物时保存，用于把从持久存储读到的内容放回存储，不覆盖期间新写入的内容
+     * @param key 用户指定的唯一标识
+     * @param name 产物名称
+     * @param content 产物内容，保存后调用方不能再修改
+     * @throws IOException 写入溢出文件失败时抛出
+     */
+    void putIfAbsent(String key, String name, byte[] content) throws IOException;
+
+    /**
+     * 整体替换key的所有产物，不在本次内容中的旧产物一并删除
+     * 写入失败时不改变已保存的产物
+     * @param key 用户指定的唯一标识
+     * @param contents 产物名称 -> 内容，保存后调用方不能再修改
+     * @throws IOException 写入溢出文件失败时抛出
+     */
+    void replace(String key, Map<String, byte[]> contents) throws IOException;
+
+    /**
+     * 读取产物
+     * @param key 用户指定的唯一标识
+     * @param name 产物名称
+     * @return 产物，不存在或已被淘汰时为空
+     */
+    Optional<Artifact> get(String key, String name);
+
+    /**
+     * 获取key的锁，同一key的持有者依次执行
+     * @param key 用户指定的唯一标识
+     * @return 锁凭证，使用结束后关闭
+     * @throws IOException 等待被中断时抛出
+     */
+    KeyLock lock(String key) throws IOException;
+
+    /**
+     * 锁凭证，关闭时释放锁
+     */
+    interface KeyLock extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * 一个产物
+     *
+     * @param content 只读内容（内存缓冲区或内存映射文件），每次读取得到独立的读取位置
+     * @param createdAt 写入时间（毫秒）
+     */
+    record Artifact(ByteBuffer content, long createdAt) {
+
+        public int size() {
+            return content.remaining();
+        }
+
+        public byte[] bytes() {
+            byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+            return bytes;
+        }
+
+        public String text() {
+            return StandardCharsets.UTF_8.decode(content.duplicate()).toString();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.qihui.profilegenerator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 批量生成的阶段并发闸门
+ * 所有批量任务共享每个阶段的名额：PDF提取受CPU限制，大模型调用在全局并发限制之外再限制批量任务的占用，
+ * 避免批量任务挤占交互请求；渲染和发布各自限流。不同条目处于不同阶段时可以同时执行，形成流水线。
+ * 未配置名额的阶段（YAML保存、签名）不受限制。
+ */
+@Component
+public class BatchStageGate implements StageGate {
+
+    private final Map<ProfileStage, Semaphore> permits = new EnumMap<>(ProfileStage.class);
+
+    public BatchStageGate(@Value("${profile.batch.stage-concurrency.extract:2}") int extract,
+                          @Value("${profile.batch.stage-concurrency.llm:2}") int llm,
+                          @Value("${profile.batch.stage-concurrency.render:2}") int render,
+                          @Value("${profile.batch.stage-concurrency.publish:4}") int publish) {
+        permits.put(ProfileStage.EXTRACT, new Semaphore(extract, true));
+        // 修复YAML板块同样调用大模型，与LLM阶段共用名额
+        Semaphore llmPermits = new Semaphore(llm, true);
+        permits.put(ProfileStage.LLM, llmPermits);
+        permits.put(ProfileStage.REPAIR, llmPermits);
+        permits.put(ProfileStage.RENDER, new Semaphore(render, true));
+        permits.put(ProfileStage.PUBLISH, new Semaphore(publish, true));
+    }
+
+    @Override
+    public Pass enter(ProfileStage stage) throws IOException {
+        Semaphore semaphore = permits.get(stage);
+        if (semaphore == null) {
+            return Pass.NONE;
+        }
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待批量处理阶段名额时被中断: " + stage);
+        }
+        return semaphore::release;
+    }
+
+    /**
+     * 获取阶段当前可用的名额数
+     * @param stage 处理阶段
+     * @return 可用名额数，不受限制的阶段返回-1
+     */
+    public int availablePermits(ProfileStage stage) {
+        Semaphore semaphore = permits.get(stage);
+        return semaphore != null ? semaphore.availablePermits() : -1;
+    }
+}
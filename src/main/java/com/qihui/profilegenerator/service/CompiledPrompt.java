@@ -0,0 +1,81 @@
+package com.qihui.profilegenerator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的提示词模板
+ * 模板在启动时切分为静态文本段和{变量}段，每次请求只做字符串拼接。
+ * 第一个变量之前的内容是固定前缀，所有请求完全一致，便于服务商复用前缀缓存。
+ */
+public final class CompiledPrompt {
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{([a-zA-Z_][a-zA-Z0-9_]*)}");
+
+    private final String name;
+    private final String version;
+    private final List<String> literals = new ArrayList<>();
+    private final List<String> variables = new ArrayList<>();
+    private final int literalLength;
+
+    private CompiledPrompt(String name, String version, String template) {
+        this.name = name;
+        this.version = version;
+        Matcher matcher = VARIABLE_PATTERN.matcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(template.substring(position, matcher.start()));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(template.substring(position));
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * 编译提示词模板
+     * @param name 提示词名称
+     * @param version 提示词版本，修改模板内容时必须更新
+     * @param template 模板文本，变量格式为{name}
+     * @return 编译后的模板
+     */
+    public static CompiledPrompt compile(String name, String version, String template) {
+        return new CompiledPrompt(name, version, template);
+    }
+
+    /**
+     * 渲染提示词
+     * @param values 变量值
+     * @return 完整的提示词
+     * @throws IllegalArgumentException 缺少变量值时抛出
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder result = new StringBuilder(literalLength + 256);
+        for (int i = 0; i < variables.size(); i++) {
+            String value = values.get(variables.get(i));
+            if (value == null) {
+                throw new IllegalArgumentException("提示词 " + name + " 缺少变量: " + variables.get(i));
+            }
+            result.append(literals.get(i)).append(value);
+        }
+        return result.append(literals.get(literals.size() - 1)).toString();
+    }
+
+    /**
+     * 所有请求共享的固定前缀（第一个变量之前的内容）
+     */
+    public String staticPrefix() {
+        return literals.get(0);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String version() {
+        return version;
+    }
+}
@@ -0,0 +1,114 @@
+package com.qihui.profilegenerator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.detect.TextDetector;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 上传文件类型识别
+ * 只根据接收时读到的文件头字节判断：先在前1024字节中查找PDF魔数，再检查是否为UTF-8文本，
+ * 无法判断时交给Tika的文本检测器（按字节统计识别其他编码的文本），不会识别我们不接受的类型。
+ * 不加载Tika的完整默认配置，检测器在启动时创建并预热，所有请求共享。
+ */
+@Component
+@Slf4j
+public class ContentTypeDetector {
+
+    public static final String PDF = "application/pdf";
+    public static final String TEXT = "text/plain";
+    public static final String UNKNOWN = "application/octet-stream";
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    // PDF规范允许文件头出现在前1024字节内
+    private static final int PDF_HEADER_WINDOW = 1024;
+
+    private final Detector fallback;
+
+    public ContentTypeDetector() {
+        this.fallback = new TextDetector(PDF_HEADER_WINDOW);
+        // 预热，避免第一个请求承担类加载开销
+        byte[] sample = "\n%PDF-1.7".getBytes(StandardCharsets.US_ASCII);
+        log.info("文件类型检测器已就绪，预热结果: {}", detect(sample, sample.length));
+    }
+
+    /**
+     * 识别文件类型
+     * @param prefix 文件头部字节
+     * @param length 有效字节数
+     * @return application/pdf、text/plain 或 application/octet-stream
+     */
+    public String detect(byte[] prefix, int length) {
+        if (containsPdfHeader(prefix, length)) {
+            return PDF;
+        }
+        if (length > 0 && isUtf8Text(prefix, length)) {
+            return TEXT;
+        }
+        try {
+            MediaType type = fallback.detect(new ByteArrayInputStream(prefix, 0, length), new Metadata());
+            return type.getBaseType().toString();
+        } catch (IOException e) {
+            log.warn("文件类型检测失败: {}", e.getMessage());
+            return UNKNOWN;
+        }
+    }
+
+    private static boolean containsPdfHeader(byte[] data, int length) {
+        int end = Math.min(length, PDF_HEADER_WINDOW) - PDF_MAGIC.length;
+        outer:
+        for (int offset = 0; offset <= end; offset++) {
+            for (int i = 0; i < PDF_MAGIC.length; i++) {
+                if (data[offset + i] != PDF_MAGIC[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 判断是否为UTF-8文本：编码合法且不含除制表、换行、换页、回车、ESC以外的控制字符。
+     * 文件头可能截断在多字节字符中间，末尾不完整的字符视为合法。
+     */
+    private static boolean isUtf8Text(byte[] data, int length) {
+        int i = 0;
+        while (i < length) {
+            int b = data[i] & 0xFF;
+            if (b < 0x80) {
+                if (b < 0x20 && b != '\t' && b != '\n' && b != '\f' && b != '\r' && b != 0x1B || b == 0x7F) {
+                    return false;
+                }
+                i++;
+                continue;
+            }
+            int continuation;
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuation = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuation = 2;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                continuation = 3;
+            } else {
+                return false;
+            }
+            for (int j = 1; j <= continuation; j++) {
+                if (i + j >= length) {
+                    return true;
+                }
+                if ((data[i + j] & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            i += continuation + 1;
+        }
+        return true;
+    }
+}
@@ -21,6 +21,19 @@ public interface FileProcessingService {
      * @return 提取的文本内容
      */
     String processPdfFile(MultipartFile file, String ossPath);
+
+    /**
+     * 处理已接收的PDF上传并提取文本，无法解析时删除已上传的文件
+     * @param upload 已接收的上传内容（OSS上传已在后台进行）
+     * @return 提取的文本内容
+     */
+    String processPdfUpload(IngestedUpload upload);
+
+    /**
+     * 丢弃已接收的上传，等待后台上传结束后删除OSS上的文件
+     * @param upload 已接收的上传内容
+     */
+    void discardUpload(IngestedUpload upload);
     
     /**
      * 处理文本文件并提取内容，指定保存路径
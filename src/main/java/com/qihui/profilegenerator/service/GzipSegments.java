@@ -0,0 +1,164 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 分段预压缩的gzip拼接
+ * 每段内容单独压缩为不带结束标记的deflate块（SYNC_FLUSH，按字节对齐），
+ * 拼接时依次连接各段的压缩结果，补上结束块、gzip头和尾部的CRC32与长度即可得到合法的gzip数据。
+ * 各段的CRC32预先计算，拼接时按长度合并，不需要再次扫描原文。
+ */
+final class GzipSegments {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    // 空的固定哈夫曼结束块
+    private static final byte[] FINAL_BLOCK = {3, 0};
+
+    private GzipSegments() {
+    }
+
+    /**
+     * 一段原文及其压缩结果
+     * @param raw 原文
+     * @param deflated 不带结束标记的deflate数据
+     * @param crc 原文的CRC32
+     */
+    record Segment(byte[] raw, byte[] deflated, long crc) {
+    }
+
+    /**
+     * 压缩一段内容
+     * @param raw 原文
+     * @param level 压缩级别
+     */
+    static Segment compress(byte[] raw, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(raw);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            int n;
+            // SYNC_FLUSH模式下输出缓冲区被写满时需要继续调用
+            do {
+                n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, n);
+            } while (n == buffer.length);
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+            return new Segment(raw, out.toByteArray(), crc.getValue());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 拼接原文
+     */
+    static byte[] concatRaw(List<Segment> segments) {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.raw().length;
+        }
+        byte[] result = new byte[size];
+        int position = 0;
+        for (Segment segment : segments) {
+            System.arraycopy(segment.raw(), 0, result, position, segment.raw().length);
+            position += segment.raw().length;
+        }
+        return result;
+    }
+
+    /**
+     * 拼接为gzip数据
+     */
+    static byte[] concatGzip(List<Segment> segments) {
+        int size = HEADER.length + FINAL_BLOCK.length + 8;
+        for (Segment segment : segments) {
+            size += segment.deflated().length;
+        }
+        byte[] result = new byte[size];
+        System.arraycopy(HEADER, 0, result, 0, HEADER.length);
+        int position = HEADER.length;
+        long crc = 0;
+        long length = 0;
+        for (Segment segment : segments) {
+            System.arraycopy(segment.deflated(), 0, result, position, segment.deflated().length);
+            position += segment.deflated().length;
+            crc = combineCrc(crc, segment.crc(), segment.raw().length);
+            length += segment.raw().length;
+        }
+        System.arraycopy(FINAL_BLOCK, 0, result, position, FINAL_BLOCK.length);
+        position += FINAL_BLOCK.length;
+        writeIntLE(result, position, crc);
+        writeIntLE(result, position + 4, length);
+        return result;
+    }
+
+    /**
+     * 合并两段数据的CRC32（与zlib的crc32_combine相同）
+     * @param crc1 第一段的CRC32
+     * @param crc2 第二段的CRC32
+     * @param length2 第二段的长度
+     * @return 两段连接后的CRC32
+     */
+    static long combineCrc(long crc1, long crc2, long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // 一个0比特对应的运算矩阵
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // 两个、四个0比特
+        square(even, odd);
+        square(odd, even);
+        // 每次平方得到下一个2的幂个0字节，按长度的二进制位作用到crc1上
+        do {
+            square(even, odd);
+            if ((length2 & 1) != 0) {
+                crc1 = times(even, crc1);
+            }
+            length2 >>= 1;
+            if (length2 == 0) {
+                break;
+            }
+            square(odd, even);
+            if ((length2 & 1) != 0) {
+                crc1 = times(odd, crc1);
+            }
+            length2 >>= 1;
+        } while (length2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long times(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void square(long[] result, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            result[n] = times(matrix, matrix[n]);
+        }
+    }
+
+    private static void writeIntLE(byte[] target, int offset, long value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+}
@@ -0,0 +1,65 @@
+package com.qihui.profilegenerator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 单次读取后的上传文件
+ * 包含识别出的文件类型、内容哈希、后续解析用的内容以及后台进行中的OSS上传。
+ * 超过阈值的内容暂存在临时文件中，使用完毕后必须关闭以删除临时文件。
+ *
+ * @param contentType 根据文件头识别出的文件类型
+ * @param sha256 内容的SHA-256十六进制字符串
+ * @param size 内容总字节数
+ * @param content 内容（内存分片或暂存文件）
+ * @param spoolFile 暂存文件，内容较小保存在内存时为null
+ * @param ossObjectKey 后台OSS上传，完成后得到OSS上的文件路径
+ * @param uploadElapsed 后台OSS上传成功后得到从开始接收到上传完成的耗时（毫秒）
+ */
+@Slf4j
+public record IngestedUpload(String contentType, String sha256, long size, Resource content, Path spoolFile,
+                             CompletableFuture<String> ossObjectKey,
+                             CompletableFuture<Long> uploadElapsed) implements AutoCloseable {
+
+    /**
+     * 等待OSS上传完成
+     * @return OSS上的文件路径
+     * @throws IOException 上传失败时抛出
+     */
+    public String awaitUpload() throws IOException {
+        try {
+            return ossObjectKey.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("上传到阿里云OSS失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 获取OSS上传耗时
+     * @return 上传已成功完成时返回耗时（毫秒），否则返回-1
+     */
+    public long uploadMillis() {
+        return uploadElapsed.isDone() && !uploadElapsed.isCompletedExceptionally() ? uploadElapsed.join() : -1;
+    }
+
+    @Override
+    public void close() {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("删除上传暂存文件失败: {}, 原因: {}", spoolFile, e.getMessage());
+        }
+    }
+}
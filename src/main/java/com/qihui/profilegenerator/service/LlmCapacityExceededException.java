@@ -0,0 +1,11 @@
+package com.qihui.profilegenerator.service;
+
+/**
+ * 大模型调用排队已满或等待超时时抛出，对应HTTP 429
+ */
+public class LlmCapacityExceededException extends RuntimeException {
+
+    public LlmCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 大模型调用并发限制器
+ * 限制同时进行的大模型请求数量，超出的请求按优先级进入有界等待队列，
+ * 队列已满时立即拒绝，排队超时同样拒绝，避免突发流量触发服务商限流。
+ */
+@Component
+@Slf4j
+public class LlmConcurrencyLimiter {
+
+    private final int maxPermits;
+    private final int maxQueueSize;
+    private final long queueTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private int availablePermits;
+
+    private final Map<LlmPriority, Timer> waitTimers = new EnumMap<>(LlmPriority.class);
+    private final Counter rejectedCounter;
+
+    public LlmConcurrencyLimiter(MeterRegistry meterRegistry,
+                                 @Value("${profile.llm.max-concurrency:4}") int maxPermits,
+                                 @Value("${profile.llm.max-queue-size:20}") int maxQueueSize,
+                                 @Value("${profile.llm.queue-timeout-ms:30000}") long queueTimeoutMs) {
+        this.maxPermits = maxPermits;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.availablePermits = maxPermits;
+
+        Gauge.builder("llm.limiter.queue.depth", this, LlmConcurrencyLimiter::getQueueDepth)
+                .description("等待大模型调用许可的请求数")
+                .register(meterRegistry);
+        Gauge.builder("llm.limiter.active", this, LlmConcurrencyLimiter::getActiveCount)
+                .description("正在进行的大模型调用数")
+                .register(meterRegistry);
+        for (LlmPriority priority : LlmPriority.values()) {
+            waitTimers.put(priority, Timer.builder("llm.limiter.wait")
+                    .tag("priority", priority.name())
+                    .description("获取大模型调用许可的等待时间")
+                    .register(meterRegistry));
+        }
+        this.rejectedCounter = Counter.builder("llm.limiter.rejected")
+                .description("因排队已满或超时被拒绝的大模型调用数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取一个调用许可，必要时排队等待
+     * @param priority 调用方优先级
+     * @return 调用许可，使用完毕后必须关闭
+     * @throws LlmCapacityExceededException 队列已满或等待超时时抛出
+     */
+    public Permit acquire(LlmPriority priority) {
+        long start = System.nanoTime();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (availablePermits > 0 && queue.isEmpty()) {
+                availablePermits--;
+                return granted(priority, start);
+            }
+            if (queue.size() >= maxQueueSize) {
+                rejectedCounter.increment();
+                throw new LlmCapacityExceededException("大模型调用排队已满，请稍后重试");
+            }
+            waiter = new Waiter(priority, sequence.incrementAndGet(), new CompletableFuture<>());
+            queue.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.grant().get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            return granted(priority, start);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return abandon(waiter, priority, start);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return maxPermits - availablePermits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放弃排队；如果在放弃前已经被分配许可，则照常使用该许可
+     */
+    private Permit abandon(Waiter waiter, LlmPriority priority, long start) {
+        lock.lock();
+        try {
+            if (!queue.remove(waiter)) {
+                return granted(priority, start);
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejectedCounter.increment();
+        log.warn("等待大模型调用许可超时，优先级: {}, 超时: {}ms", priority, queueTimeoutMs);
+        throw new LlmCapacityExceededException("大模型调用排队超时，请稍后重试");
+    }
+
+    private Permit granted(LlmPriority priority, long start) {
+        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit();
+    }
+
+    /**
+     * 归还许可，优先直接交给队首的等待者
+     */
+    private void release() {
+        lock.lock();
+        try {
+            Waiter next = queue.poll();
+            if (next != null) {
+                next.grant().complete(null);
+            } else {
+                availablePermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Waiter(LlmPriority priority, long sequence, CompletableFuture<Void> grant) {
+    }
+
+    /**
+     * 大模型调用许可，关闭时归还（重复关闭无副作用）
+     */
+    public class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大模型流式调用指标
+ * 从获得调用许可后开始计时（排队时间见llm.limiter.wait），记录首个token耗时、总耗时、
+ * token用量和输出字符数，按提示词版本打标签，便于对比不同版本提示词的表现。
+ */
+@Component
+public class LlmMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public LlmMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 开始一次流式调用
+     * @param promptVersion 系统提示词版本
+     * @return 本次调用的指标记录器
+     */
+    public StreamCall startStream(String promptVersion) {
+        return new StreamCall(promptVersion);
+    }
+
+    /**
+     * 一次流式调用的指标记录
+     */
+    public final class StreamCall {
+
+        private final String promptVersion;
+        private final long startNanos = System.nanoTime();
+        private boolean firstTokenSeen;
+        private long outputChars;
+        private Usage usage;
+
+        private StreamCall(String promptVersion) {
+            this.promptVersion = promptVersion;
+        }
+
+        /**
+         * 收到一个响应片段
+         * @param response 响应片段
+         * @param text 片段中的文本，可能为null
+         */
+        public void onResponse(ChatResponse response, String text) {
+            if (text != null && !text.isEmpty()) {
+                if (!firstTokenSeen) {
+                    firstTokenSeen = true;
+                    Timer.builder("llm.stream.first-token")
+                            .tag("prompt.version", promptVersion)
+                            .description("大模型流式调用首个token耗时")
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+                outputChars += text.length();
+            }
+            // 流式响应中的用量是累计值，以最后一个片段为准
+            if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                usage = response.getMetadata().getUsage();
+            }
+        }
+
+        /**
+         * 调用结束（完成、出错或取消）
+         * @param signal 结束信号
+         */
+        public void finish(SignalType signal) {
+            String outcome = switch (signal) {
+                case ON_COMPLETE -> "success";
+                case ON_ERROR -> "error";
+                default -> "cancelled";
+            };
+            Timer.builder("llm.stream.duration")
+                    .tag("prompt.version", promptVersion)
+                    .tag("outcome", outcome)
+                    .description("大模型流式调用总耗时")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            counter("llm.output.chars", "chars", "大模型输出字符数", null).increment(outputChars);
+            if (usage != null) {
+                incrementTokens("prompt", usage.getPromptTokens());
+                incrementTokens("completion", usage.getCompletionTokens());
+            }
+        }
+
+        private void incrementTokens(String type, Integer tokens) {
+            if (tokens != null && tokens > 0) {
+                counter("llm.tokens", "tokens", "大模型token用量", type).increment(tokens);
+            }
+        }
+
+        private Counter counter(String name, String baseUnit, String description, String type) {
+            Counter.Builder builder = Counter.builder(name)
+                    .tag("prompt.version", promptVersion)
+                    .baseUnit(baseUnit)
+                    .description(description);
+            if (type != null) {
+                builder.tag("type", type);
+            }
+            return builder.register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.qihui.profilegenerator.service;
+
+/**
+ * 大模型调用的排队优先级，数值越小越先获得许可
+ */
+public enum LlmPriority {
+    /**
+     * 同步接口，用户正在等待响应
+     */
+    INTERACTIVE,
+    /**
+     * 异步任务
+     */
+    NORMAL,
+    /**
+     * 批量处理
+     */
+    BATCH
+}
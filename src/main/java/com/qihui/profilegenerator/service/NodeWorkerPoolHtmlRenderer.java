@@ -0,0 +1,301 @@
+package com.qihui.profilegenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Node.js常驻进程池的独立HTML渲染器
+ * 启动时预先启动若干个render-worker.js进程，每个进程只加载一次template.html和js-yaml，
+ * 渲染请求通过标准输入输出按帧传递，渲染逻辑与build-standalone.js共用render-core.js。
+ * 进程异常退出、通信失败或响应超时时结束该进程，由后台健康检查或下一次使用时重新启动。
+ */
+@Component
+@ConditionalOnProperty(name = "profile.renderer.mode", havingValue = "node")
+@Slf4j
+public class NodeWorkerPoolHtmlRenderer implements StandaloneHtmlRenderer, AutoCloseable {
+
+    // 帧类型与render-worker.js一致，帧格式: 1字节类型 + 4字节大端长度 + 内容
+    private static final byte RENDER = 'R';
+    private static final byte PING = 'P';
+    private static final byte HTML = 'H';
+    private static final byte ERROR = 'E';
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Path scriptDir;
+    private final long renderTimeoutMs;
+    private final List<NodeWorker> workers;
+    private final BlockingQueue<NodeWorker> idle;
+    // 健康检查和重新启动
+    private final ScheduledExecutorService supervisor;
+    // 只负责结束响应超时的进程，不能和健康检查共用线程
+    private final ScheduledExecutorService watchdog;
+    private final Counter restartCounter;
+    private volatile boolean closed;
+
+    public NodeWorkerPoolHtmlRenderer(MeterRegistry meterRegistry,
+                                      @Value("${profile.renderer.node.pool-size:2}") int poolSize,
+                                      @Value("${profile.renderer.node.render-timeout-ms:10000}") long renderTimeoutMs,
+                                      @Value("${profile.renderer.node.health-check-interval-seconds:30}") long healthCheckIntervalSeconds,
+                                      @Value("${profile.renderer.node.script-dir:src/main/resources/static/profile_website}") String scriptDir)
+            throws IOException {
+        this.scriptDir = Paths.get(scriptDir).toAbsolutePath();
+        this.renderTimeoutMs = renderTimeoutMs;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.restartCounter = Counter.builder("profile.renderer.node.restarts")
+                .description("Node渲染进程重新启动的次数")
+                .register(meterRegistry);
+        this.supervisor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("node-render-supervisor").daemon().factory());
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("node-render-watchdog").daemon().factory());
+
+        List<NodeWorker> started = new ArrayList<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                NodeWorker worker = new NodeWorker(i);
+                started.add(worker);
+                // 启动并确认可以响应，第一次渲染不再等待进程启动
+                worker.ping();
+                idle.add(worker);
+            }
+        } catch (IOException e) {
+            started.forEach(NodeWorker::stop);
+            supervisor.shutdownNow();
+            watchdog.shutdownNow();
+            throw e;
+        }
+        this.workers = List.copyOf(started);
+        supervisor.scheduleWithFixedDelay(this::checkHealth,
+                healthCheckIntervalSeconds, healthCheckIntervalSeconds, TimeUnit.SECONDS);
+        log.info("Node渲染进程池已启动，进程数: {}，脚本目录: {}", poolSize, this.scriptDir);
+    }
+
+    @Override
+    public void render(ProfileConfigs configs, OutputStream out) throws IOException {
+        byte[] request = JSON.writeValueAsBytes(Map.of(
+                "zh", configs.zhYaml(),
+                "en", configs.enYaml()));
+        NodeWorker worker = borrow();
+        byte[] html;
+        try {
+            html = worker.render(request);
+        } finally {
+            release(worker);
+        }
+        out.write(html);
+    }
+
+    /**
+     * 结束所有渲染进程
+     */
+    @Override
+    public void close() {
+        closed = true;
+        supervisor.shutdownNow();
+        watchdog.shutdownNow();
+        workers.forEach(NodeWorker::stop);
+    }
+
+    private NodeWorker borrow() throws IOException {
+        try {
+            NodeWorker worker = idle.poll(renderTimeoutMs, TimeUnit.MILLISECONDS);
+            if (worker == null) {
+                throw new IOException("等待空闲的Node渲染进程超时: " + renderTimeoutMs + "ms");
+            }
+            return worker;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待空闲的Node渲染进程时被中断");
+        }
+    }
+
+    private void release(NodeWorker worker) {
+        idle.offer(worker);
+        if (!worker.isAlive()) {
+            rewarm();
+        }
+    }
+
+    /**
+     * 尽快重新启动已退出的空闲进程，不等下一次定时检查
+     */
+    private void rewarm() {
+        if (closed) {
+            return;
+        }
+        try {
+            supervisor.execute(this::checkHealth);
+        } catch (RejectedExecutionException e) {
+            // 已关闭
+        }
+    }
+
+    /**
+     * 依次检查当前空闲的进程，已退出的重新启动，无响应的结束后重新启动
+     */
+    private void checkHealth() {
+        for (int remaining = idle.size(); remaining > 0 && !closed; remaining--) {
+            NodeWorker worker = idle.poll();
+            if (worker == null) {
+                return;
+            }
+            try {
+                worker.ping();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Node渲染进程#{}健康检查失败: {}", worker.id, e.getMessage());
+            } finally {
+                idle.offer(worker);
+            }
+        }
+    }
+
+    /**
+     * 进程池中的一个位置，持有当前的Node进程，进程退出后在下一次使用时重新启动
+     * 同一时间只由从空闲队列取出它的线程使用
+     */
+    private final class NodeWorker {
+
+        private final int id;
+        private volatile Process process;
+        private DataOutputStream stdin;
+        private DataInputStream stdout;
+        private boolean launched;
+
+        private NodeWorker(int id) {
+            this.id = id;
+        }
+
+        byte[] render(byte[] request) throws IOException {
+            return call(RENDER, request, HTML);
+        }
+
+        void ping() throws IOException {
+            call(PING, EMPTY, PING);
+        }
+
+        boolean isAlive() {
+            Process current = process;
+            return current != null && current.isAlive();
+        }
+
+        private byte[] call(byte type, byte[] payload, byte expected) throws IOException {
+            Process current = ensureStarted();
+            ScheduledFuture<?> timeout = watchdog.schedule(
+                    current::destroyForcibly, renderTimeoutMs, TimeUnit.MILLISECONDS);
+            byte responseType;
+            byte[] body;
+            try {
+                stdin.writeByte(type);
+                stdin.writeInt(payload.length);
+                stdin.write(payload);
+                stdin.flush();
+                responseType = stdout.readByte();
+                int length = stdout.readInt();
+                if (length < 0) {
+                    throw new IOException("响应长度无效: " + length);
+                }
+                body = new byte[length];
+                stdout.readFully(body);
+            } catch (IOException e) {
+                boolean timedOut = !timeout.cancel(false);
+                stop();
+                if (timedOut) {
+                    throw new IOException("Node渲染进程#" + id + "响应超时: " + renderTimeoutMs + "ms", e);
+                }
+                throw new IOException("与Node渲染进程#" + id + "通信失败: " + e.getMessage(), e);
+            }
+            if (!timeout.cancel(false)) {
+                // 响应已读完但进程已被结束，下一次使用时重新启动
+                stop();
+            }
+
+            if (responseType == ERROR) {
+                throw new IOException(new String(body, StandardCharsets.UTF_8));
+            }
+            if (responseType != expected) {
+                stop();
+                throw new IOException("Node渲染进程#" + id + "返回了未知的响应类型: " + (char) responseType);
+            }
+            return body;
+        }
+
+        private Process ensureStarted() throws IOException {
+            Process current = process;
+            if (current != null && current.isAlive()) {
+                return current;
+            }
+            if (launched) {
+                restartCounter.increment();
+                log.info("重新启动Node渲染进程#{}", id);
+            }
+            launched = true;
+
+            ProcessBuilder processBuilder = new ProcessBuilder("node", "render-worker.js");
+            processBuilder.directory(scriptDir.toFile());
+            Process started = processBuilder.start();
+            this.stdin = new DataOutputStream(new BufferedOutputStream(started.getOutputStream()));
+            this.stdout = new DataInputStream(new BufferedInputStream(started.getInputStream()));
+            this.process = started;
+
+            Thread.ofPlatform().name("node-render-worker-" + id).daemon().start(() -> drainStderr(started));
+            started.onExit().thenAccept(exited -> {
+                // 仍是当前进程说明不是主动结束的
+                if (exited == process && !closed) {
+                    log.warn("Node渲染进程#{}异常退出，退出码: {}", id, exited.exitValue());
+                    rewarm();
+                }
+            });
+            return started;
+        }
+
+        private void drainStderr(Process started) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(started.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.info("Node渲染进程#{}: {}", id, line);
+                }
+            } catch (IOException e) {
+                // 进程已结束
+            }
+        }
+
+        void stop() {
+            Process current = process;
+            process = null;
+            if (current != null) {
+                current.destroy();
+            }
+        }
+    }
+}
@@ -2,25 +2,14 @@ package com.qihui.profilegenerator.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
-import org.apache.tika.exception.TikaException;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.pdf.PDFParser;
-import org.apache.tika.sax.BodyContentHandler;
-import org.springframework.ai.document.Document;
-import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
-import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @AllArgsConstructor
@@ -28,10 +17,12 @@ import java.util.stream.Collectors;
 public class OssFileProcessingService implements FileProcessingService {
 
     private final OssService ossService;
-    private final Tika tika = new Tika();
+    private final UploadIngestService uploadIngestService;
+    private final PdfTextExtractor pdfTextExtractor;
 
     /**
      * 处理上传的文件：上传到OSS并提取文本内容
+     * 上传流只读取一次，文件类型在接收时根据文件头识别，不支持的类型不会上传
      * @param file 上传的文件
      * @return 提取的文本内容
      */
@@ -41,24 +32,24 @@ public class OssFileProcessingService implements FileProcessingService {
             throw new IllegalArgumentException("文件不能为空");
         }
 
-        try {
-            // 检测文件类型
-            String detectedType = tika.detect(file.getInputStream());
+        String ossPath = ossService.newObjectPath(file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream();
+             IngestedUpload upload = uploadIngestService.ingest(inputStream, ossPath,
+                     Set.of(ContentTypeDetector.TEXT, ContentTypeDetector.PDF))) {
+            String detectedType = upload.contentType();
             log.info("检测到的文件类型: {}, 文件名: {}", detectedType, file.getOriginalFilename());
 
-            // 上传文件到OSS
-            String ossObjectKey = ossService.uploadFile(file);
-            log.info("文件已上传到OSS，路径: {}", ossObjectKey);
-
             // 根据文件类型处理
             if (detectedType.contains("text/plain")) {
                 // 文本文件直接读取内容
-                return new String(file.getBytes(), StandardCharsets.UTF_8);
+                String content = readText(upload);
+                log.info("文件已上传到OSS，路径: {}", upload.awaitUpload());
+                return content;
             } else if (detectedType.contains("application/pdf")) {
                 // PDF文件处理
-                return processPdfFile(file, ossObjectKey);
+                return processPdfUpload(upload);
             } else {
-                ossService.deleteFile(ossObjectKey); // 删除不支持的文件
+                discardUpload(upload); // 删除不支持的文件
                 throw new IllegalArgumentException("不支持的文件类型: " + detectedType + "，请上传文本或PDF文件");
             }
         } catch (Exception e) {
@@ -80,67 +71,59 @@ public class OssFileProcessingService implements FileProcessingService {
         }
 
         log.info("处理PDF文件: {}, 指定OSS路径: {}", file.getOriginalFilename(), ossPath);
-            
-            // 上传文件到OSS指定路径
-        String ossObjectKey = null;
-        try {
-            ossObjectKey = ossService.uploadFileToPath(file, ossPath);
+        try (InputStream inputStream = file.getInputStream();
+             IngestedUpload upload = uploadIngestService.ingest(inputStream, ossPath, Set.of(ContentTypeDetector.PDF))) {
+            return processPdfUpload(upload);
         } catch (IOException e) {
-            log.info("上传oss失败");
             throw new RuntimeException(e);
         }
-        log.info("PDF文件已上传到OSS，路径: {}", ossObjectKey);
-            // 首先尝试直接从上传的文件流解析
+    }
+
+    /**
+     * 处理已接收的PDF上传
+     * OSS上传在接收时已经开始，文本从暂存内容中解析，不再从OSS回读；无法解析时删除已上传的文件
+     * @param upload 已接收的上传内容
+     * @return 提取的文本内容
+     */
+    @Override
+    public String processPdfUpload(IngestedUpload upload) {
+        String text;
         try {
-            log.info("尝试直接从上传的文件流解析PDF");
-            return extractPdfTextWithSpringAI(ossObjectKey);
+            log.info("直接从上传的文件内容解析PDF");
+            text = pdfTextExtractor.extract(upload.content());
         } catch (IOException e) {
+            discardUpload(upload); // 删除无法解析的文件
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            discardUpload(upload);
+            throw e;
         }
 
+        // 返回前等待上传完成
+        try {
+            String ossObjectKey = upload.awaitUpload();
+            log.info("PDF文件已上传到OSS，路径: {}", ossObjectKey);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return text;
     }
     
     /**
-     * 使用Spring AI从OSS路径提取PDF文本
+     * 等待后台上传结束后删除已上传的文件
+     * 上传本身失败时没有需要删除的文件
+     * @param upload 已接收的上传内容
      */
-    private String extractPdfTextWithSpringAI(String ossObjectKey) throws IOException {
-        log.info("使用Spring AI从OSS路径解析PDF: {}", ossObjectKey);
-        
-        // 获取文件URL
-        String fileUrl = ossService.getFileUrl(ossObjectKey, 60);
-        if (fileUrl == null) {
-            throw new IOException("无法获取PDF文件URL");
-        }
-        
-        // 配置PDF阅读器
-        PdfDocumentReaderConfig config = PdfDocumentReaderConfig.builder()
-                .withPageTopMargin(70)
-                .withPageBottomMargin(70)
-                .build();
-        
-        // 使用Spring AI的PDF阅读器
-        PagePdfDocumentReader reader = new PagePdfDocumentReader(fileUrl, config);
-        
+    @Override
+    public void discardUpload(IngestedUpload upload) {
+        String ossObjectKey;
         try {
-            List<Document> documents = reader.get();
-            
-            if (documents.isEmpty()) {
-                throw new IOException("PDF文档没有可提取的内容");
-            }
-            
-            // 合并所有页面内容
-            String content = documents.stream()
-                    .map(Document::getText)
-                    .collect(Collectors.joining("\n"));
-                
-            log.info("Spring AI成功提取PDF文本，页数: {}, 总长度: {} 字符", 
-                    documents.size(), content.length());
-            
-            return content;
-        } catch (Exception e) {
-            log.error("Spring AI提取PDF文本失败: {}", e.getMessage(), e);
-            throw new IOException("无法使用Spring AI提取PDF内容: " + e.getMessage(), e);
+            ossObjectKey = upload.awaitUpload();
+        } catch (IOException e) {
+            log.warn("上传未完成，无需删除: {}", e.getMessage());
+            return;
         }
+        ossService.deleteFile(ossObjectKey);
     }
 
     /**
@@ -153,14 +136,12 @@ public class OssFileProcessingService implements FileProcessingService {
             throw new IllegalArgumentException("文本文件不能为空");
         }
         
-        try {
-            log.info("处理文本文件: {}, 指定OSS路径: {}", file.getOriginalFilename(), ossPath);
-            
-            // 上传文件到OSS指定路径
-            ossService.uploadFileToPath(file, ossPath);
-            
-            // 直接读取文本内容
-            String content = new String(file.getBytes(), StandardCharsets.UTF_8);
+        log.info("处理文本文件: {}, 指定OSS路径: {}", file.getOriginalFilename(), ossPath);
+        try (InputStream inputStream = file.getInputStream();
+             IngestedUpload upload = uploadIngestService.ingest(inputStream, ossPath)) {
+            // 直接读取文本内容，同时等待上传完成
+            String content = readText(upload);
+            upload.awaitUpload();
             log.info("成功读取文本文件内容，长度: {} 字符", content.length());
             
             return content;
@@ -170,6 +151,12 @@ public class OssFileProcessingService implements FileProcessingService {
         }
     }
 
+    private String readText(IngestedUpload upload) throws IOException {
+        try (InputStream inputStream = upload.content().getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
     /**
      * 上传本地文件到OSS指定路径
      * @param file 本地文件
@@ -0,0 +1,126 @@
+package com.qihui.profilegenerator.service;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * OSS分片上传会话
+ * 接收过程中每凑满一个分片就提交到线程池并行上传，全部完成后合并；任一分片失败则取消整个上传。
+ * 分片必须按顺序提交，且只能由接收线程调用。
+ */
+@Slf4j
+public class OssMultipartUpload {
+
+    private final OSS ossClient;
+    private final String bucketName;
+    private final String objectName;
+    private final String uploadId;
+    private final Executor executor;
+    private final List<CompletableFuture<PartETag>> parts = new ArrayList<>();
+    // 保护running和aborted，取消时等待正在上传的分片结束
+    private final Object lock = new Object();
+    private int running;
+    private boolean aborted;
+
+    OssMultipartUpload(OSS ossClient, String bucketName, String objectName, Executor executor) {
+        this.ossClient = ossClient;
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.executor = executor;
+        this.uploadId = ossClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, objectName)).getUploadId();
+        log.info("开始分片上传: {}, uploadId: {}", objectName, uploadId);
+    }
+
+    /**
+     * 异步上传一个分片
+     * @param data 分片数据，提交后调用方不能再修改
+     * @param length 有效数据长度
+     */
+    public void uploadPart(byte[] data, int length) {
+        int partNumber = parts.size() + 1;
+        parts.add(CompletableFuture.supplyAsync(() -> {
+            synchronized (lock) {
+                if (aborted) {
+                    throw new CancellationException("分片上传已取消: " + objectName);
+                }
+                running++;
+            }
+            try {
+                UploadPartRequest request = new UploadPartRequest(bucketName, objectName, uploadId, partNumber,
+                        new ByteArrayInputStream(data, 0, length), length);
+                return ossClient.uploadPart(request).getPartETag();
+            } finally {
+                synchronized (lock) {
+                    running--;
+                    lock.notifyAll();
+                }
+            }
+        }, executor));
+    }
+
+    /**
+     * 等待所有分片上传完成后合并
+     * @return 完成后得到OSS上的文件路径；失败时自动取消分片上传
+     */
+    public CompletableFuture<String> complete() {
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<PartETag> partETags = new ArrayList<>(parts.size());
+                    parts.forEach(part -> partETags.add(part.join()));
+                    ossClient.completeMultipartUpload(
+                            new CompleteMultipartUploadRequest(bucketName, objectName, uploadId, partETags));
+                    log.info("分片上传到OSS成功: {}, 分片数: {}", objectName, partETags.size());
+                    return objectName;
+                })
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("分片上传失败: {}, 原因: {}", objectName, e.getMessage());
+                        abort();
+                    }
+                });
+    }
+
+    /**
+     * 取消分片上传，清理已上传的分片
+     * 尚未开始的分片不再上传，等待正在上传的分片结束后再取消，避免取消后仍有分片到达；重复调用时只取消一次
+     */
+    public void abort() {
+        synchronized (lock) {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            parts.forEach(part -> part.cancel(false));
+            boolean interrupted = false;
+            while (running > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            ossClient.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, objectName, uploadId));
+            log.info("已取消分片上传: {}", objectName);
+        } catch (Exception e) {
+            log.warn("取消分片上传失败: {}, 原因: {}", objectName, e.getMessage());
+        }
+    }
+}
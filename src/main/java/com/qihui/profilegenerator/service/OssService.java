@@ -2,38 +2,36 @@ package com.qihui.profilegenerator.service;
 
 import com.aliyun.oss.ClientException;
 import com.aliyun.oss.OSS;
-import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.OSSErrorCode;
 import com.aliyun.oss.OSSException;
 import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.ObjectMetadata;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class OssService {
 
-    @Value("${aliyun.oss.endpoint}")
-    private String endpoint;
-
-    @Value("${aliyun.oss.access-key-id}")
-    private String accessKeyId;
-
-    @Value("${aliyun.oss.access-key-secret}")
-    private String accessKeySecret;
+    // 共享的OSS客户端，生命周期由Spring容器管理
+    private final OSS ossClient;
+    private final OssUrlSigner ossUrlSigner;
 
     @Value("${aliyun.oss.bucket-name}")
     private String bucketName;
@@ -71,14 +69,13 @@ public class OssService {
         String objectName = dirPrefix + customPath;
         log.info("上传文件到指定路径: {}", objectName);
         
-        OSS ossClient = null;
-        
-        try {
-            // 创建OSSClient实例
-            ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-            
+        // 指定内容长度，SDK无需先把整个流读入内存
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(file.getSize());
+
+        try (InputStream inputStream = file.getInputStream()) {
             // 上传文件流
-            ossClient.putObject(bucketName, objectName, file.getInputStream());
+            ossClient.putObject(bucketName, objectName, inputStream, metadata);
             
             log.info("上传文件到OSS成功: {}", objectName);
             return objectName;
@@ -88,13 +85,132 @@ public class OssService {
         } catch (ClientException ce) {
             log.error("OSS客户端异常: {}", ce.getMessage(), ce);
             throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
         }
     }
     
+    /**
+     * 上传内存中的数据到OSS指定路径
+     * @param data 数据缓冲区
+     * @param length 有效数据长度
+     * @param customPath 自定义的OSS路径（不包含dirPrefix）
+     * @return OSS上的文件路径
+     * @throws IOException 如果上传失败
+     */
+    public String uploadBytesToPath(byte[] data, int length, String customPath) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(length);
+        return putBytes(data, length, dirPrefix + customPath, metadata);
+    }
+
+    /**
+     * 上传已编码的内容到OSS指定路径，并设置访问时返回的Content-Type和Content-Encoding
+     * @param data 编码后的内容
+     * @param customPath 自定义的OSS路径（不包含dirPrefix）
+     * @param contentType 原始内容的类型
+     * @param contentEncoding 内容编码，如gzip
+     * @return OSS上的文件路径
+     * @throws IOException 如果上传失败
+     */
+    public String uploadEncodedBytesToPath(byte[] data, String customPath,
+                                           String contentType, String contentEncoding) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(data.length);
+        metadata.setContentType(contentType);
+        metadata.setContentEncoding(contentEncoding);
+        return putBytes(data, data.length, dirPrefix + customPath, metadata);
+    }
+
+    private String putBytes(byte[] data, int length, String objectName, ObjectMetadata metadata) throws IOException {
+        log.info("上传内容到指定路径: {}", objectName);
+        try {
+            ossClient.putObject(bucketName, objectName, new ByteArrayInputStream(data, 0, length), metadata);
+
+            log.info("上传内容到OSS成功: {}", objectName);
+            return objectName;
+        } catch (OSSException oe) {
+            log.error("OSS服务端异常: {}", oe.getMessage(), oe);
+            throw new IOException("上传到阿里云OSS失败: " + oe.getMessage(), oe);
+        } catch (ClientException ce) {
+            log.error("OSS客户端异常: {}", ce.getMessage(), ce);
+            throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
+        }
+    }
+
+    /**
+     * 读取OSS指定路径上的对象
+     * @param customPath 自定义的OSS路径（不包含dirPrefix）
+     * @return 对象内容及元数据，对象不存在时为空
+     * @throws IOException 如果读取失败
+     */
+    public Optional<StoredObject> getObject(String customPath) throws IOException {
+        String objectName = dirPrefix + customPath;
+        try (OSSObject object = ossClient.getObject(bucketName, objectName);
+             InputStream content = object.getObjectContent()) {
+            ObjectMetadata metadata = object.getObjectMetadata();
+            return Optional.of(new StoredObject(content.readAllBytes(),
+                    metadata.getContentEncoding(), metadata.getLastModified()));
+        } catch (OSSException oe) {
+            if (OSSErrorCode.NO_SUCH_KEY.equals(oe.getErrorCode())) {
+                return Optional.empty();
+            }
+            log.error("OSS服务端异常: {}", oe.getMessage(), oe);
+            throw new IOException("读取阿里云OSS对象失败: " + oe.getMessage(), oe);
+        } catch (ClientException ce) {
+            log.error("OSS客户端异常: {}", ce.getMessage(), ce);
+            throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
+        }
+    }
+
+    /**
+     * 在OSS内复制对象到指定路径，覆盖已有的对象
+     * @param sourceObjectName 源对象在OSS上的文件路径
+     * @param customPath 目标的自定义OSS路径（不包含dirPrefix）
+     * @return 目标在OSS上的文件路径
+     * @throws IOException 如果复制失败
+     */
+    public String copyFile(String sourceObjectName, String customPath) throws IOException {
+        String objectName = dirPrefix + customPath;
+        try {
+            ossClient.copyObject(bucketName, sourceObjectName, bucketName, objectName);
+            log.info("复制OSS对象成功: {} -> {}", sourceObjectName, objectName);
+            return objectName;
+        } catch (OSSException oe) {
+            log.error("OSS服务端异常: {}", oe.getMessage(), oe);
+            throw new IOException("复制阿里云OSS对象失败: " + oe.getMessage(), oe);
+        } catch (ClientException ce) {
+            log.error("OSS客户端异常: {}", ce.getMessage(), ce);
+            throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
+        }
+    }
+
+    /**
+     * 在OSS指定路径开始分片上传
+     * @param customPath 自定义的OSS路径（不包含dirPrefix）
+     * @param executor 并行上传分片的线程池
+     * @return 分片上传会话
+     * @throws IOException 如果初始化分片上传失败
+     */
+    public OssMultipartUpload startMultipartUpload(String customPath, Executor executor) throws IOException {
+        try {
+            return new OssMultipartUpload(ossClient, bucketName, dirPrefix + customPath, executor);
+        } catch (OSSException oe) {
+            log.error("OSS服务端异常: {}", oe.getMessage(), oe);
+            throw new IOException("上传到阿里云OSS失败: " + oe.getMessage(), oe);
+        } catch (ClientException ce) {
+            log.error("OSS客户端异常: {}", ce.getMessage(), ce);
+            throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
+        }
+    }
+
+    /**
+     * 为上传文件生成唯一的OSS路径
+     * @param originalFilename 原始文件名
+     * @return 自定义的OSS路径（不包含dirPrefix）
+     */
+    public String newObjectPath(String originalFilename) {
+        return generateUniqueFileName(getFileSuffix(originalFilename));
+    }
+
     /**
      * 获取文件的临时访问URL
      * @param objectName OSS上的文件路径
@@ -102,25 +218,12 @@ public class OssService {
      * @return 访问URL
      */
     public String getFileUrl(String objectName, int expireInSeconds) {
-        OSS ossClient = null;
-        
         try {
-            // 创建OSSClient实例
-            ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-            
-            // 设置URL过期时间
-            Date expiration = new Date(System.currentTimeMillis() + expireInSeconds * 1000L);
-            
-            // 生成临时URL
-            URL url = ossClient.generatePresignedUrl(bucketName, objectName, expiration);
-            return url.toString();
+            // 本地签名并复用同一时间桶内的URL
+            return ossUrlSigner.sign(objectName, expireInSeconds);
         } catch (Exception e) {
             log.error("生成文件访问URL失败: {}", e.getMessage(), e);
             return null;
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
         }
     }
     
@@ -129,22 +232,13 @@ public class OssService {
      * @param objectName OSS上的文件路径
      */
     public void deleteFile(String objectName) {
-        OSS ossClient = null;
-        
         try {
-            // 创建OSSClient实例
-            ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-            
             // 删除文件
             ossClient.deleteObject(bucketName, objectName);
             
             log.info("成功删除文件: {}", objectName);
         } catch (Exception e) {
             log.error("删除文件失败: {}", e.getMessage(), e);
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
         }
     }
     
@@ -163,12 +257,7 @@ public class OssService {
         String objectName = dirPrefix + customPath;
         log.info("上传本地文件到指定路径: {}", objectName);
         
-        OSS ossClient = null;
-        
         try {
-            // 创建OSSClient实例
-            ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-            
             // 上传文件
             ossClient.putObject(bucketName, objectName, file);
             
@@ -180,10 +269,6 @@ public class OssService {
         } catch (ClientException ce) {
             log.error("OSS客户端异常: {}", ce.getMessage(), ce);
             throw new IOException("无法连接到阿里云OSS: " + ce.getMessage(), ce);
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
         }
     }
     
@@ -214,4 +299,13 @@ public class OssService {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         return timestamp + "_" + uuid + suffix;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 从OSS读取的对象
+     * @param content 对象内容（按contentEncoding编码）
+     * @param contentEncoding 上传时设置的Content-Encoding，可能为null
+     * @param lastModified 最后修改时间
+     */
+    public record StoredObject(byte[] content, String contentEncoding, Date lastModified) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.qihui.profilegenerator.service;
+
+import com.aliyun.oss.OSS;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * OSS预签名URL生成器
+ * 签名只是基于AccessKey的本地HMAC计算，不需要网络请求。
+ * 过期时间按时间桶对齐，同一时间桶内对同一对象的请求复用同一个URL，
+ * 且复用的URL剩余有效期始终不少于调用方要求的时长。
+ */
+@Component
+@Slf4j
+public class OssUrlSigner {
+
+    private final OSS ossClient;
+    private final String bucketName;
+    private final long bucketSeconds;
+    private final Cache<SignKey, String> urlCache;
+
+    public OssUrlSigner(OSS ossClient,
+                        MeterRegistry meterRegistry,
+                        @Value("${aliyun.oss.bucket-name}") String bucketName,
+                        @Value("${aliyun.oss.sign.bucket-seconds:300}") long bucketSeconds,
+                        @Value("${aliyun.oss.sign.cache-max-size:10000}") long cacheMaxSize) {
+        this.ossClient = ossClient;
+        this.bucketName = bucketName;
+        this.bucketSeconds = bucketSeconds;
+        this.urlCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                // 时间桶切换后旧URL不再命中，按桶长淘汰即可
+                .expireAfterWrite(Duration.ofSeconds(bucketSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, urlCache, "oss.presigned-url");
+    }
+
+    /**
+     * 获取对象的预签名访问URL
+     * @param objectName OSS上的文件路径
+     * @param expireInSeconds URL的最短有效期（秒）
+     * @return 访问URL
+     */
+    public String sign(String objectName, int expireInSeconds) {
+        long bucket = System.currentTimeMillis() / 1000 / bucketSeconds;
+        return urlCache.get(new SignKey(objectName, expireInSeconds, bucket), this::presign);
+    }
+
+    private String presign(SignKey key) {
+        // 过期时间对齐到下一个时间桶的起点之后，保证桶内任意时刻取到的URL都满足最短有效期
+        long expiresAtSeconds = (key.bucket() + 1) * bucketSeconds + key.expireInSeconds();
+        Date expiration = new Date(expiresAtSeconds * 1000L);
+        String url = ossClient.generatePresignedUrl(bucketName, key.objectName(), expiration).toString();
+        log.debug("生成预签名URL: {}, 过期时间: {}", key.objectName(), expiration);
+        return url;
+    }
+
+    private record SignKey(String objectName, int expireInSeconds, long bucket) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 结构化的并行分支
+ * 一个分支提交到线程池执行，另一个在当前线程执行；任一分支失败时取消另一个，
+ * 返回或抛出异常前两个分支都已结束，不会遗留后台任务。线程池拒绝时两个分支都在当前线程执行。
+ * 语义与JDK的StructuredTaskScope.ShutdownOnFailure一致，但不依赖预览特性。
+ */
+final class ParallelBranches {
+
+    private ParallelBranches() {
+    }
+
+    /**
+     * 并行执行两个分支并等待两者完成
+     * @param executor 执行forked分支的线程池
+     * @param forked 在线程池中执行的分支
+     * @param inline 在当前线程执行的分支
+     * @return 两个分支的结果
+     * @throws IOException 任一分支抛出IOException或等待被中断时抛出
+     */
+    static <F, I> Results<F, I> forkJoin(Executor executor, Branch<F> forked, Branch<I> inline) throws IOException {
+        FutureTask<F> task = new FutureTask<>(forked::run);
+        CountDownLatch finished = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 线程池已满时两个分支在当前线程依次执行，不因排队已满让整个请求失败
+            F forkedResult = forked.run();
+            return new Results<>(forkedResult, inline.run());
+        }
+
+        I inlineResult;
+        try {
+            inlineResult = inline.run();
+        } catch (IOException | RuntimeException | Error e) {
+            task.cancel(true);
+            awaitUninterruptibly(finished);
+            throw e;
+        }
+
+        try {
+            F forkedResult = task.get();
+            return new Results<>(forkedResult, inlineResult);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("并行分支等待被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 可抛出IOException的分支
+     */
+    @FunctionalInterface
+    interface Branch<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * 两个分支的结果
+     */
+    record Results<F, I>(F forked, I inline) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.qihui.profilegenerator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.ai.reader.pdf.layout.PDFLayoutTextStripperByArea;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PDF文本提取器
+ * 将文档按页段切分，在专用线程池中并行提取，再按页序拼接。
+ * 逐页提取逻辑与Spring AI的PagePdfDocumentReader一致（上下边距70，页间以换行分隔）。
+ * PDDocument不是线程安全的：第一个页段在调用线程上使用已加载的文档，其余页段在线程池中各自加载一份文档。
+ * 超时或任一页段失败后，其余页段在处理内容流的过程中停止，不会在调用方返回后继续占用线程池。
+ */
+@Component
+@Slf4j
+public class PdfTextExtractor {
+
+    private static final String REGION = "pdfPageRegion";
+
+    private final PdfDocumentReaderConfig config = PdfDocumentReaderConfig.builder()
+            .withPageTopMargin(70)
+            .withPageBottomMargin(70)
+            .build();
+
+    private final ThreadPoolTaskExecutor pdfExtractExecutor;
+    private final int maxPages;
+    private final int pagesPerTask;
+    private final long timeoutMs;
+
+    public PdfTextExtractor(ThreadPoolTaskExecutor pdfExtractExecutor,
+                            @Value("${profile.pdf.max-pages:50}") int maxPages,
+                            @Value("${profile.pdf.pages-per-task:2}") int pagesPerTask,
+                            @Value("${profile.pdf.extract-timeout-ms:30000}") long timeoutMs) {
+        this.pdfExtractExecutor = pdfExtractExecutor;
+        this.maxPages = maxPages;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * 提取PDF全部页面的文本
+     * @param pdf PDF内容，文件资源直接按文件随机读取，其余资源读入内存一次
+     * @return 按页序拼接的文本
+     * @throws IOException 解析失败、页数超限、超时或没有可提取内容时抛出
+     */
+    public String extract(Resource pdf) throws IOException {
+        Budget budget = new Budget(System.currentTimeMillis() + timeoutMs);
+        PdfSource source = PdfSource.of(pdf);
+
+        List<CompletableFuture<List<String>>> ranges = new ArrayList<>();
+        try (PDDocument document = source.load()) {
+            int pageCount = document.getNumberOfPages();
+            if (pageCount > maxPages) {
+                throw new IOException("PDF页数超过上限: " + pageCount + " > " + maxPages);
+            }
+
+            // 其余页段提交到线程池，各自加载文档
+            int firstTo = Math.min(pagesPerTask, pageCount);
+            for (int start = firstTo; start < pageCount; start += pagesPerTask) {
+                int from = start;
+                int to = Math.min(start + pagesPerTask, pageCount);
+                ranges.add(CompletableFuture.supplyAsync(() -> extractRange(source, from, to, budget), pdfExtractExecutor));
+            }
+
+            // 第一个页段在调用线程上复用已加载的文档，关闭文档时不会有其他线程在使用
+            List<String> pages = new ArrayList<>(pageCount);
+            pages.addAll(extractRange(document, 0, firstTo, budget));
+            for (CompletableFuture<List<String>> range : ranges) {
+                pages.addAll(await(range, budget));
+            }
+            if (pages.isEmpty()) {
+                throw new IOException("PDF文档没有可提取的内容");
+            }
+
+            String content = String.join("\n", pages);
+            log.info("成功提取PDF文本，页数: {}, 页段数: {}, 总长度: {} 字符", pageCount, ranges.size() + 1, content.length());
+            return content;
+        } catch (IOException | RuntimeException e) {
+            // 通知其余页段停止，尚未开始的页段不再执行
+            budget.stop();
+            ranges.forEach(range -> range.cancel(false));
+            if (e instanceof CompletionException && e.getCause() instanceof IOException cause) {
+                // 第一个页段在调用线程上失败
+                throw new IOException("PDF文本提取失败: " + cause.getMessage(), cause);
+            }
+            throw e;
+        }
+    }
+
+    private List<String> await(CompletableFuture<List<String>> range, Budget budget) throws IOException {
+        try {
+            return range.get(budget.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("PDF文本提取超时: " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF文本提取被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw new IOException("PDF文本提取失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    private List<String> extractRange(PdfSource source, int from, int to, Budget budget) {
+        try {
+            budget.check();
+            try (PDDocument document = source.load()) {
+                return extractRange(document, from, to, budget);
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 提取[from, to)页的文本，空白页跳过
+     */
+    private List<String> extractRange(PDDocument document, int from, int to, Budget budget) {
+        try {
+            PDFLayoutTextStripperByArea stripper = new BudgetedStripper(budget);
+            List<String> pages = new ArrayList<>(to - from);
+            for (int pageNumber = from; pageNumber < to; pageNumber++) {
+                budget.check();
+                PDPage page = document.getPage(pageNumber);
+                PDRectangle mediaBox = page.getMediaBox();
+                int x0 = (int) mediaBox.getLowerLeftX();
+                int xW = (int) mediaBox.getWidth();
+                int y0 = (int) mediaBox.getLowerLeftY() + config.pageTopMargin;
+                int yW = (int) mediaBox.getHeight() - (config.pageTopMargin + config.pageBottomMargin);
+                stripper.addRegion(REGION, new Rectangle(x0, y0, xW, yW));
+                stripper.extractRegions(page);
+                String pageText = stripper.getTextForRegion(REGION);
+                stripper.removeRegion(REGION);
+                if (StringUtils.hasText(pageText)) {
+                    pageText = config.pageExtractedTextFormatter.format(pageText, pageNumber);
+                    if (StringUtils.hasText(pageText)) {
+                        pages.add(pageText);
+                    }
+                }
+            }
+            return pages;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 一次提取的时间预算，所有页段共享；超时或已停止时检查会抛出IOException
+     */
+    private static final class Budget {
+
+        private final long deadline;
+        private volatile boolean stopped;
+
+        private Budget(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        long remainingMillis() {
+            return Math.max(0, deadline - System.currentTimeMillis());
+        }
+
+        void check() throws IOException {
+            if (stopped) {
+                throw new IOException("PDF文本提取已停止");
+            }
+            if (System.currentTimeMillis() > deadline || Thread.currentThread().isInterrupted()) {
+                throw new IOException("PDF文本提取已超时");
+            }
+        }
+    }
+
+    /**
+     * 处理内容流时定期检查时间预算的文本提取器，单页内容过多时也能及时停止
+     */
+    private static final class BudgetedStripper extends PDFLayoutTextStripperByArea {
+
+        // 每处理这么多个内容流操作检查一次
+        private static final int CHECK_INTERVAL = 256;
+
+        private final Budget budget;
+        private int operators;
+
+        private BudgetedStripper(Budget budget) throws IOException {
+            this.budget = budget;
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if (++operators % CHECK_INTERVAL == 0) {
+                budget.check();
+            }
+            super.processOperator(operator, operands);
+        }
+
+        @Override
+        protected void writePage() throws IOException {
+            budget.check();
+            super.writePage();
+        }
+    }
+
+    /**
+     * PDF数据来源：文件直接随机读取，内存内容只读入一次后供各页段共享
+     */
+    private record PdfSource(File file, byte[] bytes) {
+
+        static PdfSource of(Resource pdf) throws IOException {
+            if (pdf.isFile()) {
+                return new PdfSource(pdf.getFile(), null);
+            }
+            try (InputStream inputStream = pdf.getInputStream()) {
+                return new PdfSource(null, inputStream.readAllBytes());
+            }
+        }
+
+        PDDocument load() throws IOException {
+            return file != null ? Loader.loadPDF(file) : Loader.loadPDF(new RandomAccessReadBuffer(bytes));
+        }
+    }
+}
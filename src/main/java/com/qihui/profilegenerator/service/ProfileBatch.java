@@ -0,0 +1,128 @@
+package com.qihui.profilegenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qihui.profilegenerator.dto.BatchItemResponse;
+import com.qihui.profilegenerator.dto.BatchSummaryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 批量生成批次
+ * 每个条目结束后立即输出一行NDJSON，所有条目提交完毕且全部结束后输出汇总行并关闭响应。
+ * 客户端断开或响应超时后批次被取消，尚未开始的条目不再执行。
+ */
+@Slf4j
+public class ProfileBatch {
+
+    private final ResponseBodyEmitter emitter;
+    private final ObjectMapper objectMapper;
+    private final boolean timings;
+    private final long startTime = System.currentTimeMillis();
+    private final Set<String> keys = new HashSet<>();
+
+    private int submitted;
+    private int finished;
+    private int succeeded;
+    private boolean sealed;
+    private boolean completed;
+    private volatile boolean cancelled;
+
+    ProfileBatch(ResponseBodyEmitter emitter, ObjectMapper objectMapper, boolean timings) {
+        this.emitter = emitter;
+        this.objectMapper = objectMapper;
+        this.timings = timings;
+        emitter.onTimeout(this::cancel);
+        emitter.onError(e -> cancel());
+    }
+
+    /**
+     * 登记一个条目
+     * @return 条目序号
+     */
+    synchronized int register() {
+        return submitted++;
+    }
+
+    /**
+     * 占用批次内的key
+     * @return key在批次中第一次出现时返回true
+     */
+    synchronized boolean claimKey(String key) {
+        return keys.add(key);
+    }
+
+    /**
+     * 条目结束，输出结果行
+     */
+    synchronized void itemFinished(BatchItemResponse item) {
+        finished++;
+        if (item.isSuccess()) {
+            succeeded++;
+        }
+        if (!timings) {
+            item.setStageTimings(null);
+        }
+        send(item);
+        completeIfDone();
+    }
+
+    /**
+     * 所有条目已提交，全部结束后输出汇总
+     */
+    public synchronized void seal() {
+        sealed = true;
+        completeIfDone();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            log.warn("批量生成已取消，客户端断开或响应超时");
+        }
+    }
+
+    private void completeIfDone() {
+        if (completed || !sealed || finished < submitted) {
+            return;
+        }
+        completed = true;
+        long processingTime = System.currentTimeMillis() - startTime;
+        log.info("批量生成完成，共 {} 个，成功 {} 个，总耗时: {}ms", submitted, succeeded, processingTime);
+        if (send(BatchSummaryResponse.builder()
+                .total(submitted)
+                .succeeded(succeeded)
+                .failed(submitted - succeeded)
+                .processingTimeMs(processingTime)
+                .build())) {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(Object line) {
+        if (cancelled) {
+            return false;
+        }
+        try {
+            // 直接输出UTF-8字节，避免字符串转换器对application/x-ndjson使用默认的ISO-8859-1编码
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            objectMapper.writeValue(out, line);
+            out.write('\n');
+            emitter.send(out.toByteArray(), MediaType.APPLICATION_NDJSON);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("输出批量生成结果失败: {}", e.getMessage());
+            cancel();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.qihui.profilegenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qihui.profilegenerator.dto.BatchItemResponse;
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 批量生成服务
+ * 后台线程依次接收每个PDF（接收时即开始上传OSS），接收完一个立即提交到批量线程池，
+ * 各条目通过共享的阶段闸门执行，不同条目可以同时处于不同阶段；单个条目失败不影响其他条目。
+ * 大模型调用使用BATCH优先级，排队时让位于交互请求和异步任务。
+ */
+@Service
+@Slf4j
+public class ProfileBatchService {
+
+    private final ProfileGenerationService profileGenerationService;
+    private final ThreadPoolTaskExecutor profileBatchExecutor;
+    private final BatchStageGate batchStageGate;
+    private final ObjectMapper objectMapper;
+    private final int maxItems;
+    private final long maxEntryBytes;
+
+    public ProfileBatchService(ProfileGenerationService profileGenerationService,
+                               ThreadPoolTaskExecutor profileBatchExecutor,
+                               BatchStageGate batchStageGate,
+                               ObjectMapper objectMapper,
+                               @Value("${profile.batch.max-items:100}") int maxItems,
+                               @Value("${profile.batch.max-entry-size-kb:10240}") long maxEntrySizeKb) {
+        this.profileGenerationService = profileGenerationService;
+        this.profileBatchExecutor = profileBatchExecutor;
+        this.batchStageGate = batchStageGate;
+        this.objectMapper = objectMapper;
+        this.maxItems = maxItems;
+        this.maxEntryBytes = maxEntrySizeKb * 1024;
+    }
+
+    /**
+     * 创建批次
+     * @param emitter 输出NDJSON结果的响应
+     * @param timings 是否在条目结果中返回各阶段耗时
+     * @return 新建的批次，提交完所有条目后需要调用seal
+     */
+    public ProfileBatch open(ResponseBodyEmitter emitter, boolean timings) {
+        return new ProfileBatch(emitter, objectMapper, timings);
+    }
+
+    /**
+     * 接收并提交一个条目，失败时只记录该条目的错误
+     * @param batch 批次
+     * @param key 用户指定的唯一标识
+     * @param fileName 文件名
+     * @param pdfStream PDF内容，只读取一次，由调用方关闭
+     */
+    public void submit(ProfileBatch batch, String key, String fileName, InputStream pdfStream) {
+        int index = batch.register();
+        if (index >= maxItems) {
+            finishFailed(batch, index, key, fileName, "超过单个批次的条目上限: " + maxItems);
+            return;
+        }
+        if (batch.isCancelled()) {
+            finishFailed(batch, index, key, fileName, "批次已取消");
+            return;
+        }
+
+        IngestedUpload upload;
+        try {
+            profileGenerationService.validateKey(key);
+            if (!batch.claimKey(key)) {
+                throw new IllegalArgumentException("批次中key重复: " + key);
+            }
+            upload = profileGenerationService.ingest(key, pdfStream);
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("批量条目接收失败, key: {}, 原因: {}", key, e.getMessage());
+            finishFailed(batch, index, key, fileName, e.getMessage());
+            return;
+        }
+        try {
+            profileBatchExecutor.execute(() -> run(batch, index, key, fileName, upload));
+        } catch (RejectedExecutionException e) {
+            profileGenerationService.discard(upload);
+            log.warn("批量线程池队列已满，拒绝条目: {}", key);
+            finishFailed(batch, index, key, fileName, "服务繁忙，请稍后重试");
+        }
+    }
+
+    /**
+     * 依次接收并提交ZIP中的PDF，key取自文件名（不含扩展名）
+     * 目录、隐藏文件和macOS元数据会被忽略
+     * @param batch 批次
+     * @param archiveStream ZIP内容，由调用方关闭
+     * @throws IOException ZIP格式错误时抛出，已提交的条目继续执行
+     */
+    public void submitArchive(ProfileBatch batch, InputStream archiveStream) throws IOException {
+        ZipInputStream zip = new ZipInputStream(archiveStream);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String fileName = baseName(entry.getName());
+            if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/") || fileName.startsWith(".")) {
+                continue;
+            }
+            submit(batch, keyFromFileName(fileName), fileName, new EntryInputStream(zip, maxEntryBytes));
+        }
+    }
+
+    /**
+     * 记录一个无法提交的条目，例如ZIP读取到一半时格式错误
+     * @param batch 批次
+     * @param fileName 文件名，可能为null
+     * @param error 错误消息
+     */
+    public void reject(ProfileBatch batch, String fileName, String error) {
+        finishFailed(batch, batch.register(), null, fileName, error);
+    }
+
+    /**
+     * 根据文件名生成key：去掉目录和扩展名
+     */
+    public static String keyFromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = baseName(fileName);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String baseName(String path) {
+        return path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+    }
+
+    private void run(ProfileBatch batch, int index, String key, String fileName, IngestedUpload upload) {
+        if (batch.isCancelled()) {
+            profileGenerationService.discard(upload);
+            finishFailed(batch, index, key, fileName, "批次已取消");
+            return;
+        }
+        try (upload) {
+            ResumeResponse response = profileGenerationService.generate(
+                    key, upload, LlmPriority.BATCH, ProfileProgressListener.NOOP, batchStageGate);
+            batch.itemFinished(BatchItemResponse.builder()
+                    .index(index)
+                    .key(key)
+                    .fileName(fileName)
+                    .success(response.isSuccess())
+                    .error(response.getError())
+                    .htmlUrl(response.getHtmlUrl())
+                    .configFiles(response.getConfigFiles())
+                    .processingTimeMs(response.getProcessingTimeMs())
+                    .stageTimings(response.getStageTimings())
+                    .build());
+            log.info("批量条目生成完成, key: {}", key);
+        } catch (Exception e) {
+            log.error("批量条目生成失败, key: {}, 原因: {}", key, e.getMessage(), e);
+            finishFailed(batch, index, key, fileName, e.getMessage());
+        }
+    }
+
+    private static void finishFailed(ProfileBatch batch, int index, String key, String fileName, String error) {
+        batch.itemFinished(BatchItemResponse.builder()
+                .index(index)
+                .key(key)
+                .fileName(fileName)
+                .success(false)
+                .error(error)
+                .build());
+    }
+
+    /**
+     * ZIP条目输入流，限制单个条目的大小，关闭时不关闭ZIP流
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        EntryInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                checkLimit(n);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void checkLimit(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("文件超过大小上限: " + limit / 1024 + "KB");
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.qihui.profilegenerator.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 个人主页配置校验
+ * 按template.html实际读取的字段检查配置结构：basic和ui（含nav、hero、contact、footer、lang）必须存在，
+ * about为映射，experience、projects、education、certifications为映射列表，
+ * 存在某个板块时ui中必须有对应的标题文本。问题按顶层板块归类，便于只修复出错的板块。
+ */
+@Component
+public class ProfileConfigValidator {
+
+    /**
+     * 顶层板块，按模板中的顺序
+     */
+    public static final List<String> SECTIONS = List.of(
+            "basic", "about", "experience", "projects", "education", "certifications", "ui");
+
+    private static final List<String> LIST_SECTIONS = List.of("experience", "projects", "education", "certifications");
+    private static final List<String> REQUIRED_UI = List.of("nav", "hero", "contact", "footer", "lang");
+
+    /**
+     * 一个板块的问题
+     * @param section 顶层板块名称
+     * @param message 问题描述
+     */
+    public record Problem(String section, String message) {
+    }
+
+    /**
+     * 修正不影响内容的常见结构问题
+     * 整个配置被包在zh/en下时去掉外层；列表板块只有一项且写成映射时包装为列表
+     * @param config 解析后的配置
+     * @return 修正后的配置，无法修正时原样返回
+     */
+    public Object normalize(Object config) {
+        if (config instanceof Map<?, ?> map && map.size() == 1) {
+            Object onlyKey = map.keySet().iterator().next();
+            if (("zh".equals(onlyKey) || "en".equals(onlyKey)) && map.get(onlyKey) instanceof Map<?, ?> inner) {
+                config = inner;
+            }
+        }
+        if (!(config instanceof Map<?, ?> map)) {
+            return config;
+        }
+        Map<Object, Object> result = new LinkedHashMap<>(map);
+        for (String section : LIST_SECTIONS) {
+            if (result.get(section) instanceof Map<?, ?> single) {
+                result.put(section, new ArrayList<>(List.of(single)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 校验配置结构
+     * @param config 解析（并修正）后的配置
+     * @return 问题列表，没有问题时为空
+     */
+    public List<Problem> validate(Object config) {
+        List<Problem> problems = new ArrayList<>();
+        if (!(config instanceof Map<?, ?> root)) {
+            problems.add(new Problem("basic", "配置的顶层必须是键值映射"));
+            return problems;
+        }
+
+        if (!(root.get("basic") instanceof Map<?, ?> basic)) {
+            problems.add(new Problem("basic", "缺少basic或不是键值映射"));
+        } else if (basic.get("roles") != null && !(basic.get("roles") instanceof List)) {
+            problems.add(new Problem("basic", "basic.roles必须是列表"));
+        }
+
+        Object about = root.get("about");
+        if (about != null && !(about instanceof Map)) {
+            problems.add(new Problem("about", "about必须是键值映射"));
+        } else if (about instanceof Map<?, ?> aboutMap
+                && aboutMap.get("skills") != null && !(aboutMap.get("skills") instanceof List)) {
+            problems.add(new Problem("about", "about.skills必须是列表"));
+        }
+
+        for (String section : LIST_SECTIONS) {
+            Object value = root.get(section);
+            if (value == null) {
+                continue;
+            }
+            if (!(value instanceof List<?> items)) {
+                problems.add(new Problem(section, section + "必须是列表"));
+            } else if (!items.stream().allMatch(item -> item instanceof Map)) {
+                problems.add(new Problem(section, section + "的每一项都必须是键值映射"));
+            }
+        }
+
+        if (!(root.get("ui") instanceof Map<?, ?> ui)) {
+            problems.add(new Problem("ui", "缺少ui或不是键值映射"));
+            return problems;
+        }
+        List<String> missing = new ArrayList<>();
+        for (String key : REQUIRED_UI) {
+            if (!(ui.get(key) instanceof Map)) {
+                missing.add(key);
+            }
+        }
+        if (ui.get("hero") instanceof Map<?, ?> hero && !(hero.get("buttons") instanceof Map)) {
+            missing.add("hero.buttons");
+        }
+        // 存在的板块需要ui中对应的标题文本
+        for (String section : SECTIONS.subList(1, SECTIONS.size() - 1)) {
+            if (isPresent(root.get(section)) && !(ui.get(section) instanceof Map)) {
+                missing.add(section);
+            }
+        }
+        if (ui.get("projects") instanceof Map<?, ?> projects && isPresent(root.get("projects"))
+                && !(projects.get("buttons") instanceof Map)) {
+            missing.add("projects.buttons");
+        }
+        if (!missing.isEmpty()) {
+            problems.add(new Problem("ui", "ui缺少以下文本配置: " + String.join(", ", missing)));
+        }
+        return problems;
+    }
+
+    private static boolean isPresent(Object section) {
+        return section instanceof Map || (section instanceof List<?> list && !list.isEmpty());
+    }
+}
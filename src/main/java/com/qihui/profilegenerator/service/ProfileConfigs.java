@@ -0,0 +1,14 @@
+package com.qihui.profilegenerator.service;
+
+/**
+ * 一个个人主页的中英文配置
+ * 同时保留YAML原文和解析后的对象，渲染时无需重复解析
+ *
+ * @param key 用户指定的唯一标识
+ * @param zhYaml 中文YAML原文
+ * @param enYaml 英文YAML原文
+ * @param zhConfig 解析后的中文配置
+ * @param enConfig 解析后的英文配置
+ */
+public record ProfileConfigs(String key, String zhYaml, String enYaml, Object zhConfig, Object enConfig) {
+}
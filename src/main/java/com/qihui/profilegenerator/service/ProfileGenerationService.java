@@ -0,0 +1,606 @@
+package com.qihui.profilegenerator.service;
+
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 个人主页生成流水线
+ * 上传PDF、提取文本、调用大模型生成YAML、生成HTML并上传到OSS
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class ProfileGenerationService {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]+$");
+    // 允许通过接口读取的配置文件
+    private static final Set<String> CONFIG_FILE_NAMES = Set.of(
+            ProfileLanguage.ZH.fileName(), ProfileLanguage.EN.fileName());
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=utf-8";
+
+    private final ResumeProcessingService resumeProcessingService;
+    private final OssFileProcessingService ossFileProcessingService;
+    private final OssService ossService;
+    private final UploadIngestService uploadIngestService;
+    private final YamlConfigRepairer yamlConfigRepairer;
+    // 每个key的YAML配置的本地副本，持久保存在OSS上，未命中时从OSS读取
+    private final ArtifactStore artifactStore;
+    private final StandaloneHtmlRenderer htmlRenderer;
+    private final ProfilePageCache profilePageCache;
+    // OSS上传线程池，也用于流水线内的I/O分支（开启虚拟线程时为虚拟线程）
+    private final AsyncTaskExecutor ossUploadExecutor;
+    // 全局进度观察者，每次生成都会和调用方的监听器一起收到阶段通知
+    private final ObjectProvider<ProfileProgressListener> progressObservers;
+    // 正在执行的生成请求，按key和PDF内容合并
+    private final SingleFlight<GenerationKey, ResumeResponse> generations =
+            new SingleFlight<>(response -> response.toBuilder().build());
+
+    /**
+     * 校验生成请求的key
+     * 文件类型不再信任客户端声明的Content-Type，而是在接收时根据文件头识别
+     * @param key 用户指定的唯一标识
+     * @throws IllegalArgumentException key不合法时抛出
+     */
+    public void validateKey(String key) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("无效的key格式，只允许字母、数字、下划线和连字符");
+        }
+    }
+
+    /**
+     * 接收上传的PDF，同时在后台上传到key目录下本次请求独有的暂存路径
+     * 接收时还没有持有key锁，不能直接覆盖正式路径上正在生成或已发布的主页引用的PDF；
+     * 生成成功后在key锁内移到正式路径，失败或合并到相同请求时删除
+     * @param key 用户指定的唯一标识
+     * @param pdfStream PDF上传流，只读取一次，由调用方关闭
+     * @return 接收结果，生成结束后必须关闭；没有调用generate时用discard丢弃
+     * @throws IOException 读取上传流失败时抛出
+     * @throws IllegalArgumentException 文件头不是PDF时抛出
+     */
+    public IngestedUpload ingest(String key, InputStream pdfStream) throws IOException {
+        String ossPath = stagingOssPath(key);
+        log.info("上传文件到OSS暂存路径: {}", ossPath);
+        return uploadIngestService.ingest(pdfStream, ossPath, Set.of(ContentTypeDetector.PDF));
+    }
+
+    /**
+     * 丢弃没有用于生成的上传（如任务被拒绝、批次已取消），删除OSS上的暂存文件并关闭
+     * @param upload 已接收的上传
+     */
+    public void discard(IngestedUpload upload) {
+        try (upload) {
+            ossFileProcessingService.discardUpload(upload);
+        }
+    }
+
+    /**
+     * 根据指定的key生成个人资料配置
+     * 将PDF上传到OSS的key目录，解析成文本，转换成YAML格式并保存，最后生成HTML并上传
+     *
+     * @param key 用户指定的唯一标识
+     * @param upload 已接收的PDF上传
+     * @param priority 大模型调用的排队优先级
+     * @param listener 进度监听器
+     * @return 处理结果
+     * @throws IOException 文件处理失败时抛出
+     * @throws LlmCapacityExceededException 大模型调用排队已满或超时
+     */
+    public ResumeResponse generate(String key, IngestedUpload upload, LlmPriority priority,
+                                   ProfileProgressListener listener) throws IOException {
+        return generate(key, upload, priority, listener, StageGate.OPEN);
+    }
+
+    /**
+     * 根据指定的key生成个人资料配置，每个阶段开始前先通过并发闸门
+     * 相同key和PDF内容的请求正在执行时直接等待其结果；同一key的不同内容依次执行
+     *
+     * @param key 用户指定的唯一标识
+     * @param upload 已接收的PDF上传
+     * @param priority 大模型调用的排队优先级
+     * @param listener 进度监听器
+     * @param gate 阶段并发闸门，阶段耗时不包含在闸门前等待的时间
+     * @return 处理结果
+     * @throws IOException 文件处理失败或等待闸门被中断时抛出
+     * @throws LlmCapacityExceededException 大模型调用排队已满或超时
+     */
+    public ResumeResponse generate(String key, IngestedUpload upload, LlmPriority priority,
+                                   ProfileProgressListener listener, StageGate gate) throws IOException {
+        // 相同key和内容的并发请求（如重复点击、客户端重试）只执行一次，后到的请求共享结果
+        AtomicBoolean executed = new AtomicBoolean();
+        try {
+            return generations.execute(new GenerationKey(key, upload.sha256()), listener, progress -> {
+                executed.set(true);
+                // 同一key的不同内容依次生成，也不与修改配置交错
+                try (ArtifactStore.KeyLock lock = artifactStore.lock(key)) {
+                    return runPipeline(key, upload, priority, progress, gate);
+                } catch (IOException | RuntimeException e) {
+                    // 没有生成成功，暂存的PDF不再需要（删除是幂等的，文本提取失败时可能已删除）
+                    ossFileProcessingService.discardUpload(upload);
+                    throw e;
+                }
+            });
+        } finally {
+            if (!executed.get()) {
+                // 合并到相同请求，使用的是第一个请求上传的PDF
+                ossFileProcessingService.discardUpload(upload);
+            }
+        }
+    }
+
+    private ResumeResponse runPipeline(String key, IngestedUpload upload, LlmPriority priority,
+                                       ProfileProgressListener listener, StageGate gate) throws IOException {
+        long startTime = System.currentTimeMillis();
+        String ossPath = pdfOssPath(key);
+        StageTimings stageTimings = new StageTimings();
+        List<ProfileProgressListener> observers = new ArrayList<>(progressObservers.orderedStream().toList());
+        observers.add(stageTimings);
+        ProfileProgressListener progress = ProfileProgressListener.compose(listener, observers);
+
+        // 使用OSS文件处理服务处理PDF文件，失败时由generate删除暂存的文件
+        String extractedText = runStage(ProfileStage.EXTRACT, progress, gate,
+                () -> ossFileProcessingService.processPdfUpload(upload));
+        log.info("成功处理PDF文件，提取文本长度: {} 字符", extractedText.length());
+        // OSS上传在接收时就已开始，文本提取结束时已等待其完成
+        long uploadMillis = upload.uploadMillis();
+        if (uploadMillis >= 0) {
+            progress.onStageCompleted(ProfileStage.UPLOAD, uploadMillis);
+        }
+
+        // 调用AI服务生成YAML格式，边接收边切分，每个YAML文档完整后立即写入
+        YamlConfigWriter configWriter = new YamlConfigWriter(key, yamlConfigRepairer);
+        YamlStreamSplitter splitter = new YamlStreamSplitter(configWriter);
+        String resumeLink = ossService.getUrlPrefix() + ossPath;
+        runStage(ProfileStage.LLM, progress, gate, () -> {
+            Flux<String> yamlFlux = resumeProcessingService.convertResumeToYaml(extractedText, resumeLink, priority);
+            try {
+                yamlFlux.doOnNext(chunk -> {
+                    try {
+                        splitter.accept(chunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    progress.onOutput(chunk);
+                }).blockLast();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return null;
+        });
+        log.info("成功生成YAML内容，长度: {} 字符", splitter.getTotalLength());
+
+        // 提交最后一个YAML文档
+        runStage(ProfileStage.YAML_WRITE, progress, gate, () -> {
+            splitter.finish();
+            return null;
+        });
+        // 本地无法修复的文档只重新生成出错的板块
+        if (configWriter.hasPending()) {
+            runStage(ProfileStage.REPAIR, progress, gate, () -> {
+                configWriter.repairPending(language -> (section, sectionYaml, problem) ->
+                        resumeProcessingService.repairYamlSection(section, sectionYaml, problem, language, priority));
+                return null;
+            });
+        }
+        // 中英文配置都就绪后生成独立HTML上传到OSS，发布成功后再把暂存的PDF移到正式路径并整体替换保存的配置
+        // （整个生成过程持有key锁），失败时保留上一次生成的PDF和配置，不留下未发布的内容
+        ProfileConfigs configs = configWriter.toConfigs();
+        String htmlDownloadUrl = publishHtml(configs, null, progress, gate);
+        promoteUpload(upload, ossPath);
+        String[] configFiles = configWriter.commit(this::saveConfigs);
+        // 缓存校验和修复后的配置，相同输入再次生成时不再调用大模型，也不再修复
+        resumeProcessingService.cacheConversion(extractedText, resumeLink,
+                configs.zhYaml() + "\n---\n" + configs.enYaml());
+
+        // 计算处理时间
+        long processingTime = System.currentTimeMillis() - startTime;
+        log.info("个人档案配置生成完成，总耗时: {}ms", processingTime);
+
+        // 在返回的消息中添加HTML下载链接
+        String resultMessage = "个人档案配置文件已生成并保存，可以通过以下链接下载HTML文件";
+        ResumeResponse response = ResumeResponse.successWithConfigAndHtml(
+                resultMessage,
+                configFiles,
+                htmlDownloadUrl,
+                processingTime
+        );
+        response.setStageTimings(stageTimings.toMap());
+        return response;
+    }
+
+    /**
+     * 更新一种语言的YAML配置并重新发布个人主页
+     * 不调用大模型，另一种语言使用已保存的配置（渲染器支持时直接复用上次渲染的片段），只重新上传HTML
+     *
+     * @param key 用户指定的唯一标识
+     * @param language 修改的语言
+     * @param yaml 修改后的YAML配置
+     * @return 处理结果
+     * @throws IOException 文件处理失败时抛出
+     * @throws IllegalArgumentException key不合法、YAML不符合模板需要的结构或该key尚未生成配置时抛出
+     */
+    public ResumeResponse updateConfig(String key, ProfileLanguage language, String yaml) throws IOException {
+        validateKey(key);
+        long startTime = System.currentTimeMillis();
+        YamlConfigRepairer.Check check = checkConfig(yaml, language.fileName());
+
+        StageTimings stageTimings = new StageTimings();
+        List<ProfileProgressListener> observers = new ArrayList<>(progressObservers.orderedStream().toList());
+        observers.add(stageTimings);
+        ProfileProgressListener progress = ProfileProgressListener.compose(ProfileProgressListener.NOOP, observers);
+
+        String htmlDownloadUrl;
+        // 读取另一种语言、重新发布和保存修改在同一把锁内完成，同时修改中英文时不会丢失其中一个
+        try (ArtifactStore.KeyLock lock = artifactStore.lock(key)) {
+            String otherYaml = loadConfig(key, language.other().fileName())
+                    .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                    .orElseThrow(() -> new IllegalArgumentException("配置不存在，请先生成个人主页: " + key));
+            // 已保存的另一种语言只要求能够解析，兼容校验规则加入之前生成的配置
+            Object otherConfig = yamlConfigRepairer.check(otherYaml).config();
+            if (otherConfig == null) {
+                throw new IOException("解析" + language.other().fileName() + "失败: " + key);
+            }
+            ProfileConfigs configs = language == ProfileLanguage.ZH
+                    ? new ProfileConfigs(key, check.yaml(), otherYaml, check.config(), otherConfig)
+                    : new ProfileConfigs(key, otherYaml, check.yaml(), otherConfig, check.config());
+            htmlDownloadUrl = publishHtml(configs, language, progress, StageGate.OPEN);
+            // 发布成功后再保存修改，渲染或上传失败时保存的配置仍与线上的主页一致
+            runStage(ProfileStage.YAML_WRITE, progress, StageGate.OPEN, () -> {
+                saveConfigs(key, Map.of(language.fileName(), check.yaml().getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+            log.info("已更新{}配置: {}", language.code(), key);
+        }
+        long processingTime = System.currentTimeMillis() - startTime;
+        log.info("个人主页更新完成，key: {}, 总耗时: {}ms", key, processingTime);
+
+        String[] configFiles = {
+                configFileLink(key, ProfileLanguage.ZH.fileName()),
+                configFileLink(key, ProfileLanguage.EN.fileName())
+        };
+        ResumeResponse response = ResumeResponse.successWithConfigAndHtml(
+                "配置已更新，个人主页已重新生成", configFiles, htmlDownloadUrl, processingTime);
+        response.setStageTimings(stageTimings.toMap());
+        return response;
+    }
+
+    /**
+     * 读取已保存的YAML配置
+     *
+     * @param key 用户指定的唯一标识
+     * @param fileName 配置文件名（zh.yaml或en.yaml）
+     * @return YAML配置，该key尚未生成配置时为空
+     * @throws IOException 从OSS读取失败时抛出
+     * @throws IllegalArgumentException key或文件名不合法时抛出
+     */
+    public Optional<byte[]> getConfig(String key, String fileName) throws IOException {
+        validateKey(key);
+        if (!CONFIG_FILE_NAMES.contains(fileName)) {
+            throw new IllegalArgumentException("不支持的配置文件: " + fileName);
+        }
+        return loadConfig(key, fileName);
+    }
+
+    /**
+     * 读取配置，本地副本已淘汰（或由其他实例生成、重启后）时从OSS读取并放回本地
+     */
+    private Optional<byte[]> loadConfig(String key, String fileName) throws IOException {
+        Optional<ArtifactStore.Artifact> local = artifactStore.get(key, fileName);
+        if (local.isPresent()) {
+            return Optional.of(local.get().bytes());
+        }
+        Optional<OssService.StoredObject> stored = ossService.getObject(configOssPath(key, fileName));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] content = stored.get().content();
+        // 不持有key锁，读取期间有新的配置提交时不能用读到的旧内容覆盖
+        artifactStore.putIfAbsent(key, fileName, content);
+        return Optional.of(content);
+    }
+
+    /**
+     * 先把配置写入OSS持久保存，再更新本地副本，只在持有key锁时调用
+     * @param key 用户指定的唯一标识
+     * @param contents 配置文件名 -> 内容
+     * @throws IOException 上传失败时抛出，此时不更新本地副本
+     */
+    private void saveConfigs(String key, Map<String, byte[]> contents) throws IOException {
+        for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+            byte[] content = entry.getValue();
+            ossService.uploadBytesToPath(content, content.length, configOssPath(key, entry.getKey()));
+        }
+        if (contents.keySet().containsAll(CONFIG_FILE_NAMES)) {
+            artifactStore.replace(key, contents);
+        } else {
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                artifactStore.put(key, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 解析并校验用户提交的YAML配置
+     * @return 本地检查结果（清理后的文本和解析结果）
+     * @throws IllegalArgumentException 配置无法解析或不符合模板需要的结构时抛出
+     */
+    private YamlConfigRepairer.Check checkConfig(String yaml, String fileName) {
+        YamlConfigRepairer.Check check = yamlConfigRepairer.check(yaml);
+        if (!check.isValid()) {
+            throw new IllegalArgumentException(fileName + "不符合要求: " + check.problems());
+        }
+        return check;
+    }
+
+    /**
+     * 生成独立HTML文件并上传到OSS，签名不依赖上传结果，与之并行
+     * 配置了页面访问地址时返回 /p/{key} 链接，不再签名
+     *
+     * @param configs 中英文配置
+     * @param changed 只有一种语言变化时为该语言，为null时完整渲染
+     * @return HTML访问链接
+     */
+    private String publishHtml(ProfileConfigs configs, ProfileLanguage changed,
+                               ProfileProgressListener progress, StageGate gate) throws IOException {
+        String htmlOssPath = htmlOssPath(configs.key());
+        String htmlDownloadUrl = profilePageCache.pageUrl(configs.key());
+        if (htmlDownloadUrl != null) {
+            renderAndUpload(configs, changed, progress, gate);
+        } else {
+            htmlDownloadUrl = ParallelBranches.forkJoin(ossUploadExecutor,
+                    // 获取下载链接（有效期设置为1小时）
+                    () -> runStage(ProfileStage.SIGN, progress, gate,
+                            () -> ossService.getFileUrl(ossService.getDirPrefix() + htmlOssPath, 3600)),
+                    () -> renderAndUpload(configs, changed, progress, gate)).forked();
+        }
+        log.info("HTML文件下载链接: {}", htmlDownloadUrl);
+        return htmlDownloadUrl;
+    }
+
+    private RenderedHtml renderAndUpload(ProfileConfigs configs, ProfileLanguage changed,
+                                         ProfileProgressListener progress, StageGate gate) throws IOException {
+        String htmlOssPath = htmlOssPath(configs.key());
+        RenderedHtml html = runStage(ProfileStage.RENDER, progress, gate,
+                () -> htmlRenderer.renderPage(configs, changed));
+        // 上传gzip压缩后的HTML，浏览器按Content-Encoding解压
+        runStage(ProfileStage.PUBLISH, progress, gate,
+                () -> ossService.uploadEncodedBytesToPath(html.gzip(), htmlOssPath, HTML_CONTENT_TYPE, "gzip"));
+        log.info("成功上传HTML文件到OSS路径: {}，压缩后 {} 字节", htmlOssPath, html.gzip().length);
+        // 上传成功后更新本地页面缓存，/p/{key} 立即返回新内容
+        profilePageCache.put(configs.key(), html);
+        return html;
+    }
+
+    /**
+     * 把暂存的PDF复制到正式路径后删除暂存文件，只在持有key锁且发布成功后调用
+     */
+    private void promoteUpload(IngestedUpload upload, String ossPath) throws IOException {
+        String stagedObjectKey = upload.awaitUpload();
+        ossService.copyFile(stagedObjectKey, ossPath);
+        ossService.deleteFile(stagedObjectKey);
+    }
+
+    /**
+     * 个人主页HTML在OSS上的路径（不包含dirPrefix）
+     */
+    static String htmlOssPath(String key) {
+        return key + "/" + key + ".html";
+    }
+
+    /**
+     * YAML配置在OSS上的路径（不包含dirPrefix），与HTML在同一目录
+     */
+    static String configOssPath(String key, String fileName) {
+        return key + "/" + fileName;
+    }
+
+    /**
+     * 配置文件的读取链接
+     */
+    private static String configFileLink(String key, String fileName) {
+        return "/api/resume/" + key + "/config/" + fileName;
+    }
+
+    private static String pdfOssPath(String key) {
+        return key + "/" + key + ".pdf";
+    }
+
+    /**
+     * 单次请求上传的PDF在OSS上的暂存路径（不包含dirPrefix），同一key的并发请求互不覆盖
+     */
+    private String stagingOssPath(String key) {
+        return key + "/staging/" + ossService.newObjectPath(pdfOssPath(key));
+    }
+
+    /**
+     * 执行一个处理阶段并上报进度
+     */
+    private <T> T runStage(ProfileStage stage, ProfileProgressListener listener, StageGate gate,
+                           StageTask<T> task) throws IOException {
+        try (StageGate.Pass pass = gate.enter(stage)) {
+            listener.onStageStarted(stage);
+            long stageStart = System.currentTimeMillis();
+            T result = task.run();
+            listener.onStageCompleted(stage, System.currentTimeMillis() - stageStart);
+            return result;
+        }
+    }
+
+    /**
+     * YAML配置文件输出端
+     * 第一个文档为zh.yaml，第二个为en.yaml；没有分隔符时无法区分中英文，生成失败。
+     * 每个文档到达时先在本地校验和修复，通过后立即解析完成，渲染时直接使用解析结果；
+     * 本地无法修复的文档暂存，等大模型输出结束后再只重新生成出错的板块。
+     * 发布成功后整体替换该key保存的配置。
+     */
+    private static class YamlConfigWriter implements YamlStreamSplitter.DocumentSink {
+
+        private final String key;
+        private final YamlConfigRepairer repairer;
+        private final Map<ProfileLanguage, String> pending = new EnumMap<>(ProfileLanguage.class);
+        private boolean unsplit;
+        private String zhYaml;
+        private String enYaml;
+        private Object zhConfig;
+        private Object enConfig;
+
+        YamlConfigWriter(String key, YamlConfigRepairer repairer) {
+            this.key = key;
+            this.repairer = repairer;
+        }
+
+        @Override
+        public void accept(int index, String document, boolean endOfStream) {
+            if (index == 0 && endOfStream) {
+                log.warn("YAML内容格式不符合预期，无法分离中英文内容");
+                unsplit = true;
+                return;
+            }
+            if (index > 1) {
+                log.warn("忽略多余的YAML文档，序号: {}", index);
+                return;
+            }
+
+            ProfileLanguage language = index == 0 ? ProfileLanguage.ZH : ProfileLanguage.EN;
+            YamlConfigRepairer.Check check = repairer.check(document);
+            if (check.isValid()) {
+                save(language, check.yaml(), check.config());
+            } else {
+                log.warn("{}不符合要求，等待修复: {}", language.fileName(), check.problems());
+                pending.put(language, document);
+            }
+        }
+
+        boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        /**
+         * 修复暂存的文档
+         * @param rewriters 按语言创建板块重写
+         * @throws IOException 无法修复时抛出
+         */
+        void repairPending(Function<ProfileLanguage, YamlConfigRepairer.SectionRewriter> rewriters) throws IOException {
+            for (Map.Entry<ProfileLanguage, String> entry : pending.entrySet()) {
+                ProfileLanguage language = entry.getKey();
+                YamlConfigRepairer.Result result = repairer.repair(entry.getValue(), rewriters.apply(language));
+                log.info("{}修复完成，重新生成的板块: {}", language.fileName(), result.rewrittenSections());
+                save(language, result.yaml(), result.config());
+            }
+            pending.clear();
+        }
+
+        /**
+         * 用中英文配置整体替换该key保存的配置，只在toConfigs成功后调用
+         * @param saver 保存配置
+         * @return 中文、英文配置文件链接
+         * @throws IOException 写入失败时抛出
+         */
+        String[] commit(ConfigSaver saver) throws IOException {
+            Map<String, byte[]> contents = new LinkedHashMap<>();
+            contents.put(ProfileLanguage.ZH.fileName(), zhYaml.getBytes(StandardCharsets.UTF_8));
+            contents.put(ProfileLanguage.EN.fileName(), enYaml.getBytes(StandardCharsets.UTF_8));
+            saver.save(key, contents);
+            log.info("YAML配置已保存: {}/{}", key, contents.keySet());
+            return contents.keySet().stream()
+                    .map(fileName -> configFileLink(key, fileName))
+                    .toArray(String[]::new);
+        }
+
+        private void save(ProfileLanguage language, String yaml, Object config) {
+            if (language == ProfileLanguage.ZH) {
+                zhYaml = yaml;
+                zhConfig = config;
+            } else {
+                enYaml = yaml;
+                enConfig = config;
+            }
+        }
+
+        /**
+         * 获取渲染使用的中英文配置
+         * @throws IOException 缺少中文或英文配置时抛出
+         */
+        ProfileConfigs toConfigs() throws IOException {
+            if (unsplit) {
+                throw new IOException("YAML内容格式不符合预期，无法分离中英文配置: " + key);
+            }
+            if (zhYaml == null) {
+                throw new IOException("中文配置不存在: " + key);
+            }
+            if (enYaml == null) {
+                throw new IOException("英文配置不存在: " + key);
+            }
+            return new ProfileConfigs(key, zhYaml, enYaml, zhConfig, enConfig);
+        }
+    }
+
+    /**
+     * 验证key是否符合规则（只允许字母、数字、下划线和连字符）
+     */
+    private boolean isValidKey(String key) {
+        return key != null && !key.isEmpty() && KEY_PATTERN.matcher(key).matches();
+    }
+
+    /**
+     * 合并生成请求的标识
+     * @param key 用户指定的唯一标识
+     * @param sha256 PDF内容的SHA-256
+     */
+    private record GenerationKey(String key, String sha256) {
+    }
+
+    /**
+     * 单次生成的各阶段耗时，SIGN和RENDER在不同线程上报
+     */
+    private static class StageTimings implements ProfileProgressListener {
+
+        private final Map<ProfileStage, Long> timings = new EnumMap<>(ProfileStage.class);
+
+        @Override
+        public synchronized void onStageCompleted(ProfileStage stage, long elapsedMs) {
+            timings.put(stage, elapsedMs);
+        }
+
+        synchronized Map<String, Long> toMap() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            timings.forEach((stage, elapsedMs) -> result.put(stage.name(), elapsedMs));
+            return result;
+        }
+    }
+
+    /**
+     * 保存一个key的配置
+     */
+    @FunctionalInterface
+    private interface ConfigSaver {
+        void save(String key, Map<String, byte[]> contents) throws IOException;
+    }
+
+    /**
+     * 可抛出IOException的阶段任务
+     */
+    @FunctionalInterface
+    private interface StageTask<T> {
+        T run() throws IOException;
+    }
+}
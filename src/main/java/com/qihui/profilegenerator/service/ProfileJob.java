@@ -0,0 +1,253 @@
+package com.qihui.profilegenerator.service;
+
+import com.qihui.profilegenerator.dto.ProfileJobResponse;
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 异步生成任务
+ * 记录任务状态和各阶段耗时，并将阶段变化推送给订阅的SSE客户端。
+ * 事件先放入每个订阅者的有界队列，由推送线程池发送，流水线线程不等待客户端；
+ * 队列已满时大模型输出合并到队尾的输出事件中（队尾不是输出事件时丢弃），阶段和状态事件始终保留。
+ */
+@Slf4j
+public class ProfileJob implements ProfileProgressListener {
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final String key;
+
+    private final long createdAt = System.currentTimeMillis();
+    private final Map<String, Long> stageTimings = new LinkedHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Executor eventExecutor;
+    private final int eventQueueCapacity;
+
+    private Status status = Status.QUEUED;
+    private ProfileStage currentStage;
+    private ResumeResponse result;
+    private String error;
+
+    /**
+     * @param id 任务ID
+     * @param key 用户指定的唯一标识
+     * @param eventExecutor 推送SSE事件的线程池
+     * @param eventQueueCapacity 每个订阅者等待发送的事件数上限
+     */
+    public ProfileJob(String id, String key, Executor eventExecutor, int eventQueueCapacity) {
+        this.id = id;
+        this.key = key;
+        this.eventExecutor = eventExecutor;
+        this.eventQueueCapacity = eventQueueCapacity;
+    }
+
+    /**
+     * 任务开始执行
+     */
+    public synchronized void markRunning() {
+        status = Status.RUNNING;
+        broadcast("status", toResponse());
+    }
+
+    @Override
+    public synchronized void onStageStarted(ProfileStage stage) {
+        currentStage = stage;
+        broadcast("stage", Map.of("stage", stage, "state", "STARTED"));
+    }
+
+    @Override
+    public synchronized void onStageCompleted(ProfileStage stage, long elapsedMs) {
+        stageTimings.put(stage.name(), elapsedMs);
+        broadcast("stage", Map.of("stage", stage, "state", "COMPLETED", "elapsedMs", elapsedMs));
+    }
+
+    @Override
+    public synchronized void onOutput(String chunk) {
+        broadcast("output", chunk);
+    }
+
+    /**
+     * 任务执行完成
+     */
+    public synchronized void complete(ResumeResponse response) {
+        result = response;
+        status = response.isSuccess() ? Status.SUCCEEDED : Status.FAILED;
+        error = response.getError();
+        currentStage = null;
+        finish();
+    }
+
+    /**
+     * 任务执行失败
+     */
+    public synchronized void fail(String message) {
+        status = Status.FAILED;
+        error = message;
+        finish();
+    }
+
+    /**
+     * 订阅任务进度，已结束的任务会立即收到最终状态
+     */
+    public synchronized void subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        if (isFinished()) {
+            subscriber.offer(finalEvent());
+            return;
+        }
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.offer(new Event("status", toResponse()));
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    /**
+     * 转换为响应DTO
+     */
+    public synchronized ProfileJobResponse toResponse() {
+        return ProfileJobResponse.builder()
+                .jobId(id)
+                .key(key)
+                .status(status.name())
+                .currentStage(currentStage != null ? currentStage.name() : null)
+                .stageTimings(new LinkedHashMap<>(stageTimings))
+                .result(result)
+                .error(error)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private void finish() {
+        Event event = finalEvent();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+        subscribers.clear();
+    }
+
+    private Event finalEvent() {
+        return new Event(status == Status.SUCCEEDED ? "completed" : "failed", toResponse());
+    }
+
+    private void broadcast(String eventName, Object data) {
+        Event event = new Event(eventName, data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * 待发送的SSE事件
+     */
+    private record Event(String name, Object data) {
+
+        boolean isOutput() {
+            return name.equals("output");
+        }
+
+        boolean isFinal() {
+            return name.equals("completed") || name.equals("failed");
+        }
+    }
+
+    /**
+     * 一个SSE订阅者及其待发送的事件
+     * 有事件等待发送时只提交一个发送任务，发送任务依次发送到队列为空为止
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (event.isOutput() && queue.size() >= eventQueueCapacity) {
+                    Event last = queue.peekLast();
+                    if (last != null && last.isOutput()) {
+                        queue.pollLast();
+                        queue.addLast(new Event(last.name(), (String) last.data() + event.data()));
+                    }
+                    return;
+                }
+                queue.addLast(event);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                eventExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                log.warn("推送线程池已满，断开任务{}的订阅", id);
+                close();
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Event event;
+                synchronized (this) {
+                    event = closed ? null : queue.pollFirst();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                    if (event.isFinal()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("推送任务进度失败，任务: {}, 原因: {}", id, e.getMessage());
+                    close();
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.qihui.profilegenerator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 异步生成任务服务
+ * 请求线程只负责提交任务，流水线在有界线程池中执行。
+ * 排队和执行中的任务一直可以查询，结束后的任务从结束时起保留一段时间，超过数量上限时淘汰较早结束的任务。
+ */
+@Service
+@Slf4j
+public class ProfileJobService {
+
+    private final ProfileGenerationService profileGenerationService;
+    private final ThreadPoolTaskExecutor profileJobExecutor;
+    private final AsyncTaskExecutor profileEventExecutor;
+    private final int sseQueueCapacity;
+    // 排队和执行中的任务，数量受任务线程池的队列限制，不会被淘汰
+    private final Map<String, ProfileJob> activeJobs = new ConcurrentHashMap<>();
+    // 已结束的任务，过期时间从结束时算起
+    private final Cache<String, ProfileJob> finishedJobs;
+
+    public ProfileJobService(ProfileGenerationService profileGenerationService,
+                             ThreadPoolTaskExecutor profileJobExecutor,
+                             AsyncTaskExecutor profileEventExecutor,
+                             @Value("${profile.jobs.sse-queue-capacity:256}") int sseQueueCapacity,
+                             @Value("${profile.jobs.retention-minutes:60}") long retentionMinutes,
+                             @Value("${profile.jobs.max-retained:1000}") long maxRetained) {
+        this.profileGenerationService = profileGenerationService;
+        this.profileJobExecutor = profileJobExecutor;
+        this.profileEventExecutor = profileEventExecutor;
+        this.sseQueueCapacity = sseQueueCapacity;
+        this.finishedJobs = Caffeine.newBuilder()
+                .maximumSize(maxRetained)
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+    }
+
+    /**
+     * 提交生成任务
+     * @param key 用户指定的唯一标识
+     * @param upload 已接收的PDF上传（请求结束后上传文件会被清理，因此需要在请求线程中接收），任务结束后关闭
+     * @return 新建的任务
+     * @throws RejectedExecutionException 任务队列已满时抛出，此时由调用方丢弃upload
+     */
+    public ProfileJob submit(String key, IngestedUpload upload) {
+        ProfileJob job = new ProfileJob(UUID.randomUUID().toString().replace("-", ""), key,
+                profileEventExecutor, sseQueueCapacity);
+        activeJobs.put(job.getId(), job);
+        try {
+            profileJobExecutor.execute(() -> run(job, upload));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.getId());
+            throw e;
+        }
+        log.info("已提交生成任务: {}, key: {}", job.getId(), key);
+        return job;
+    }
+
+    /**
+     * 查询任务
+     */
+    public Optional<ProfileJob> findJob(String jobId) {
+        ProfileJob job = activeJobs.get(jobId);
+        if (job == null) {
+            job = finishedJobs.getIfPresent(jobId);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    private void run(ProfileJob job, IngestedUpload upload) {
+        job.markRunning();
+        try (upload) {
+            ResumeResponse response = profileGenerationService.generate(
+                    job.getKey(), upload, LlmPriority.NORMAL, job);
+            job.complete(response);
+            log.info("生成任务完成: {}", job.getId());
+        } catch (Exception e) {
+            log.error("生成任务失败: {}, 原因: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        } finally {
+            // 先加入已结束的任务再移除，查询时不会短暂找不到
+            finishedJobs.put(job.getId(), job);
+            activeJobs.remove(job.getId());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.qihui.profilegenerator.service;
+
+import java.util.Locale;
+
+/**
+ * 个人主页的配置语言，每种语言对应一个YAML配置文件和模板中的一个配置占位符
+ */
+public enum ProfileLanguage {
+    /**
+     * 中文配置（zh.yaml，CONFIG_PLACEHOLDER_ZH）
+     */
+    ZH,
+    /**
+     * 英文配置（en.yaml，CONFIG_PLACEHOLDER_EN）
+     */
+    EN;
+
+    /**
+     * 配置文件名
+     */
+    public String fileName() {
+        return code() + ".yaml";
+    }
+
+    /**
+     * 语言代码（zh、en）
+     */
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 另一种语言
+     */
+    public ProfileLanguage other() {
+        return this == ZH ? EN : ZH;
+    }
+
+    /**
+     * 根据语言代码查找
+     * @param code 语言代码，不区分大小写
+     * @throws IllegalArgumentException 不支持的语言代码
+     */
+    public static ProfileLanguage fromCode(String code) {
+        for (ProfileLanguage language : values()) {
+            if (language.code().equalsIgnoreCase(code)) {
+                return language;
+            }
+        }
+        throw new IllegalArgumentException("不支持的语言: " + code + "，只支持zh和en");
+    }
+}
@@ -0,0 +1,147 @@
+package com.qihui.profilegenerator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 已发布个人主页的本地读缓存
+ * 生成或修改配置后直接写入渲染结果，未命中时从OSS读取（同一key的并发未命中只读取一次）。
+ * 按HTML和gzip结果的总字节数限制容量，写入后超过过期时间重新从OSS读取，
+ * 多实例部署时其他实例发布的修改最迟在过期后可见。
+ * OSS上不存在的key也短暂缓存，不存在的链接被反复访问时不会每次都读取OSS。
+ */
+@Component
+@Slf4j
+public class ProfilePageCache {
+
+    // 最多记录的不存在的key数量
+    private static final long MISSING_MAX_SIZE = 10_000;
+
+    private final OssService ossService;
+    private final Cache<String, ProfilePage> cache;
+    // OSS上不存在的key
+    private final Cache<String, Boolean> missing;
+    private final String baseUrl;
+
+    public ProfilePageCache(OssService ossService,
+                            MeterRegistry meterRegistry,
+                            @Value("${profile.page-cache.max-size-mb:256}") long maxSizeMb,
+                            @Value("${profile.page-cache.expire-after-write-minutes:10}") long expireMinutes,
+                            @Value("${profile.page-cache.missing-ttl-seconds:30}") long missingTtlSeconds,
+                            @Value("${profile.page.base-url:}") String baseUrl) {
+        this.ossService = ossService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String key, ProfilePage page) -> page.html().length + page.gzip().length)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "profile.page");
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(MISSING_MAX_SIZE)
+                .expireAfterWrite(Duration.ofSeconds(missingTtlSeconds))
+                .build();
+        this.baseUrl = baseUrl == null || baseUrl.isBlank() ? null : baseUrl.replaceAll("/+$", "");
+    }
+
+    /**
+     * 获取个人主页的访问链接
+     * @param key 用户指定的唯一标识
+     * @return 配置了profile.page.base-url时为 {base-url}/p/{key}，否则为null（使用OSS预签名链接）
+     */
+    public String pageUrl(String key) {
+        return baseUrl != null ? baseUrl + "/p/" + key : null;
+    }
+
+    /**
+     * 写入刚发布的个人主页
+     * @param key 用户指定的唯一标识
+     * @param html 渲染结果
+     */
+    public void put(String key, RenderedHtml html) {
+        cache.put(key, ProfilePage.of(html, System.currentTimeMillis()));
+        // 同一key正在进行的加载结束后put才返回，此时清除不会被加载结果覆盖
+        missing.invalidate(key);
+    }
+
+    /**
+     * 获取个人主页，未命中时从OSS读取
+     * @param key 用户指定的唯一标识
+     * @return 个人主页，OSS上也不存在时为空
+     * @throws IOException 从OSS读取失败时抛出
+     */
+    public Optional<ProfilePage> get(String key) throws IOException {
+        if (missing.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(cache.get(key, this::load));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ProfilePage load(String key) {
+        try {
+            Optional<OssService.StoredObject> stored = ossService.getObject(ProfileGenerationService.htmlOssPath(key));
+            if (stored.isEmpty()) {
+                missing.put(key, Boolean.TRUE);
+                return null;
+            }
+            OssService.StoredObject object = stored.get();
+            RenderedHtml html;
+            if ("gzip".equalsIgnoreCase(object.contentEncoding())) {
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(object.content()))) {
+                    html = new RenderedHtml(in.readAllBytes(), object.content());
+                }
+            } else {
+                // 早期上传的未压缩HTML
+                html = RenderedHtml.of(object.content());
+            }
+            long lastModified = object.lastModified() != null ? object.lastModified().getTime() : System.currentTimeMillis();
+            log.debug("从OSS加载个人主页: {}, {} 字节", key, html.html().length);
+            return ProfilePage.of(html, lastModified);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 缓存的个人主页
+     *
+     * @param html UTF-8编码的HTML
+     * @param gzip gzip压缩后的HTML
+     * @param etag 按HTML内容计算的实体标签（不含引号）
+     * @param lastModified 发布时间（毫秒，已截断到秒，与HTTP日期精度一致）
+     */
+    public record ProfilePage(byte[] html, byte[] gzip, String etag, long lastModified) {
+
+        static ProfilePage of(RenderedHtml html, long lastModified) {
+            return new ProfilePage(html.html(), html.gzip(), contentHash(html.html()), lastModified / 1000 * 1000);
+        }
+
+        private static String contentHash(byte[] html) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(html);
+                return HexFormat.of().formatHex(digest, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256不可用", e);
+            }
+        }
+    }
+}
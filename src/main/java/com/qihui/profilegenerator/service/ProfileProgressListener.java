@@ -0,0 +1,69 @@
+package com.qihui.profilegenerator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流水线进度监听器，用于上报各阶段的开始和耗时
+ */
+public interface ProfileProgressListener {
+
+    /**
+     * 不做任何处理的监听器
+     */
+    ProfileProgressListener NOOP = new ProfileProgressListener() {
+    };
+
+    /**
+     * 组合多个监听器，按顺序通知
+     * @param first 调用方的监听器
+     * @param others 其他监听器
+     * @return 组合后的监听器，没有其他监听器时直接返回first
+     */
+    static ProfileProgressListener compose(ProfileProgressListener first, List<ProfileProgressListener> others) {
+        if (others.isEmpty()) {
+            return first;
+        }
+        List<ProfileProgressListener> listeners = new ArrayList<>(others.size() + 1);
+        listeners.add(first);
+        listeners.addAll(others);
+        return new ProfileProgressListener() {
+            @Override
+            public void onStageStarted(ProfileStage stage) {
+                listeners.forEach(listener -> listener.onStageStarted(stage));
+            }
+
+            @Override
+            public void onStageCompleted(ProfileStage stage, long elapsedMs) {
+                listeners.forEach(listener -> listener.onStageCompleted(stage, elapsedMs));
+            }
+
+            @Override
+            public void onOutput(String chunk) {
+                listeners.forEach(listener -> listener.onOutput(chunk));
+            }
+        };
+    }
+
+    /**
+     * 阶段开始
+     * @param stage 处理阶段
+     */
+    default void onStageStarted(ProfileStage stage) {
+    }
+
+    /**
+     * 阶段完成
+     * @param stage 处理阶段
+     * @param elapsedMs 阶段耗时（毫秒）
+     */
+    default void onStageCompleted(ProfileStage stage, long elapsedMs) {
+    }
+
+    /**
+     * 大模型输出的内容片段
+     * @param chunk 内容片段
+     */
+    default void onOutput(String chunk) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.qihui.profilegenerator.service;
+
+/**
+ * 个人主页生成流水线的处理阶段
+ */
+public enum ProfileStage {
+    /**
+     * 上传PDF到OSS（接收上传时开始，与文本提取并行）
+     */
+    UPLOAD,
+    /**
+     * 提取PDF文本并等待OSS上传完成
+     */
+    EXTRACT,
+    /**
+     * 调用大模型生成YAML
+     */
+    LLM,
+    /**
+     * 保存YAML配置文件
+     */
+    YAML_WRITE,
+    /**
+     * 重新生成不符合要求的YAML板块（只在本地无法修复时执行）
+     */
+    REPAIR,
+    /**
+     * 生成独立HTML文件
+     */
+    RENDER,
+    /**
+     * 上传HTML文件到OSS
+     */
+    PUBLISH,
+    /**
+     * 生成HTML下载链接
+     */
+    SIGN
+}
@@ -0,0 +1,35 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流水线各阶段耗时指标
+ * 作为全局进度观察者注册，每个阶段对应一个带直方图的计时器，可在Prometheus中按阶段计算分位数
+ */
+@Component
+public class ProfileStageMetrics implements ProfileProgressListener {
+
+    private final Map<ProfileStage, Timer> stageTimers = new EnumMap<>(ProfileStage.class);
+
+    public ProfileStageMetrics(MeterRegistry meterRegistry) {
+        for (ProfileStage stage : ProfileStage.values()) {
+            stageTimers.put(stage, Timer.builder("profile.stage.duration")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .description("个人主页生成各阶段耗时")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void onStageCompleted(ProfileStage stage, long elapsedMs) {
+        stageTimers.get(stage).record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+}
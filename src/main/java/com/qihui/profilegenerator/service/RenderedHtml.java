@@ -0,0 +1,26 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 渲染后的独立HTML
+ *
+ * @param html UTF-8编码的HTML
+ * @param gzip gzip压缩后的HTML，上传OSS时使用
+ */
+public record RenderedHtml(byte[] html, byte[] gzip) {
+
+    /**
+     * 由完整的HTML整体压缩得到
+     * @param html UTF-8编码的HTML
+     */
+    public static RenderedHtml of(byte[] html) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(html.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(html);
+        }
+        return new RenderedHtml(html, compressed.toByteArray());
+    }
+}
@@ -0,0 +1,252 @@
+package com.qihui.profilegenerator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 简历转换结果缓存
+ * 以提取文本、简历链接、提示词版本和模型参数的哈希为键，相同输入直接返回已生成的中英文YAML。
+ * 内存中按容量和过期时间淘汰，可选持久化到本地目录。
+ * 持久化目录在启动时和之后定期清理：删除过期的文件，再按修改时间从旧到新删除超出文件数或总大小上限的文件。
+ */
+@Component
+@Slf4j
+public class ResumeConversionCache implements AutoCloseable {
+
+    private static final String SUFFIX = ".yaml";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Cache<String, String> cache;
+    private final Duration ttl;
+    private final Path persistDir;
+    private final int maxFiles;
+    private final long maxBytes;
+    private final ScheduledExecutorService sweeper;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ResumeConversionCache(MeterRegistry meterRegistry,
+                                 @Value("${profile.conversion-cache.max-size:500}") long maxSize,
+                                 @Value("${profile.conversion-cache.ttl-hours:24}") long ttlHours,
+                                 @Value("${profile.conversion-cache.dir:}") String persistDir,
+                                 @Value("${profile.conversion-cache.dir-max-files:2000}") int maxFiles,
+                                 @Value("${profile.conversion-cache.dir-max-size-mb:200}") long maxSizeMb,
+                                 @Value("${profile.conversion-cache.sweep-interval-minutes:30}") long sweepIntervalMinutes)
+            throws IOException {
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxFiles = maxFiles;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "profile.conversion");
+        this.hitCounter = Counter.builder("profile.conversion.cache.requests")
+                .tag("result", "hit")
+                .description("简历转换缓存命中次数")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("profile.conversion.cache.requests")
+                .tag("result", "miss")
+                .description("简历转换缓存未命中次数")
+                .register(meterRegistry);
+
+        if (persistDir == null || persistDir.isBlank()) {
+            this.persistDir = null;
+            this.sweeper = null;
+        } else {
+            this.persistDir = Paths.get(persistDir).toAbsolutePath();
+            Files.createDirectories(this.persistDir);
+            log.info("简历转换缓存持久化目录: {}", this.persistDir);
+            sweep();
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("conversion-cache-sweeper").daemon().factory());
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMinutes, sweepIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * 计算缓存键
+     * @param resumeContent 提取的简历文本
+     * @param resumeLink 简历链接（会写入生成的YAML）
+     * @param fingerprint 提示词版本和模型参数
+     * @return SHA-256十六进制字符串
+     */
+    public String key(String resumeContent, String resumeLink, String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{fingerprint, resumeLink, resumeContent}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                // 分隔各部分，避免拼接歧义
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 查询缓存
+     * @param key 缓存键
+     * @return 缓存的YAML内容
+     */
+    public Optional<String> get(String key) {
+        String yaml = cache.getIfPresent(key);
+        if (yaml == null) {
+            yaml = readPersisted(key);
+            if (yaml != null) {
+                cache.put(key, yaml);
+            }
+        }
+        (yaml != null ? hitCounter : missCounter).increment();
+        return Optional.ofNullable(yaml);
+    }
+
+    /**
+     * 写入缓存，空内容不缓存
+     * @param key 缓存键
+     * @param yaml 通过校验的完整YAML内容
+     */
+    public void put(String key, String yaml) {
+        if (yaml == null || yaml.isBlank()) {
+            return;
+        }
+        cache.put(key, yaml);
+        writePersisted(key, yaml);
+    }
+
+    private String readPersisted(String key) {
+        if (persistDir == null) {
+            return null;
+        }
+        Path file = persistDir.resolve(key + SUFFIX);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            long ageMs = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            if (ageMs > ttl.toMillis()) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return Files.readString(file);
+        } catch (IOException e) {
+            log.warn("读取持久化的转换缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writePersisted(String key, String yaml) {
+        if (persistDir == null) {
+            return;
+        }
+        try {
+            // 先写临时文件再原子替换，避免并发读到不完整的内容
+            Path tempFile = Files.createTempFile(persistDir, key, TEMP_SUFFIX);
+            Files.writeString(tempFile, yaml);
+            Files.move(tempFile, persistDir.resolve(key + SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("持久化转换缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清理持久化目录
+     * 删除过期的缓存文件和写入中断遗留的临时文件，再按修改时间从旧到新删除超出文件数或总大小上限的缓存文件
+     * @return 删除的文件数
+     */
+    int sweep() {
+        if (persistDir == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        List<PersistedFile> retained = new ArrayList<>();
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(persistDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SUFFIX) && !name.endsWith(TEMP_SUFFIX)) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    long modifiedMs = attributes.lastModifiedTime().toMillis();
+                    if (now - modifiedMs > ttl.toMillis()) {
+                        deleted += delete(file);
+                    } else if (name.endsWith(SUFFIX)) {
+                        retained.add(new PersistedFile(file, modifiedMs, attributes.size()));
+                    }
+                } catch (IOException e) {
+                    // 文件可能已被并发的读取或写入替换，下次清理时再处理
+                    log.debug("读取转换缓存文件属性失败: {}", e.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("清理转换缓存目录失败: {}", e.getMessage());
+            return deleted;
+        }
+
+        // 保留最新的文件，直到达到文件数或总大小上限
+        retained.sort(Comparator.comparingLong(PersistedFile::modifiedMs).reversed());
+        long totalBytes = 0;
+        for (int i = 0; i < retained.size(); i++) {
+            PersistedFile file = retained.get(i);
+            totalBytes += file.size();
+            if (i >= maxFiles || totalBytes > maxBytes) {
+                deleted += delete(file.path());
+            }
+        }
+        if (deleted > 0) {
+            log.info("清理转换缓存目录，删除文件数: {}", deleted);
+        }
+        return deleted;
+    }
+
+    private int delete(Path file) {
+        try {
+            return Files.deleteIfExists(file) ? 1 : 0;
+        } catch (IOException e) {
+            log.warn("删除转换缓存文件失败: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private record PersistedFile(Path path, long modifiedMs, long size) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.qihui.profilegenerator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * 相同请求合并执行
+ * 同一标识的请求正在执行时，后到的请求不再重复执行，而是等待并共享第一个请求的结果（或异常）；
+ * 执行期间后到请求的进度监听器也会收到之后的阶段通知。执行结束后立即移除，不缓存结果。
+ *
+ * @param <K> 请求标识
+ * @param <V> 执行结果
+ */
+@Slf4j
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    // 后到的请求拿到结果的副本，调用方可以各自修改
+    private final UnaryOperator<V> copier;
+
+    SingleFlight(UnaryOperator<V> copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * 一次执行
+     */
+    @FunctionalInterface
+    interface Call<V> {
+
+        /**
+         * @param progress 进度监听器，会同时通知合并进来的请求
+         */
+        V run(ProfileProgressListener progress) throws IOException;
+    }
+
+    /**
+     * 执行或合并到正在执行的相同请求
+     * @param key 请求标识
+     * @param listener 当前请求的进度监听器
+     * @param call 没有相同请求在执行时执行的内容
+     * @return 执行结果，合并的请求得到结果的副本
+     * @throws IOException 执行失败或等待被中断时抛出
+     */
+    V execute(K key, ProfileProgressListener listener, Call<V> call) throws IOException {
+        Flight<V> flight = new Flight<>(listener);
+        Flight<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.info("合并到正在执行的相同请求: {}", key);
+            existing.followers.add(listener);
+            return copier.apply(existing.await());
+        }
+        try {
+            V result = call.run(flight.progress());
+            flight.result.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * 正在执行的请求数量
+     */
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static final class Flight<V> {
+
+        private final ProfileProgressListener leader;
+        private final List<ProfileProgressListener> followers = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Flight(ProfileProgressListener leader) {
+            this.leader = leader;
+        }
+
+        ProfileProgressListener progress() {
+            return new ProfileProgressListener() {
+                @Override
+                public void onStageStarted(ProfileStage stage) {
+                    leader.onStageStarted(stage);
+                    followers.forEach(listener -> listener.onStageStarted(stage));
+                }
+
+                @Override
+                public void onStageCompleted(ProfileStage stage, long elapsedMs) {
+                    leader.onStageCompleted(stage, elapsedMs);
+                    followers.forEach(listener -> listener.onStageCompleted(stage, elapsedMs));
+                }
+
+                @Override
+                public void onOutput(String chunk) {
+                    leader.onOutput(chunk);
+                    followers.forEach(listener -> listener.onOutput(chunk));
+                }
+            };
+        }
+
+        V await() throws IOException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待相同请求的结果时被中断");
+            } catch (ExecutionException e) {
+                // 原样抛出执行时的异常，调用方按相同的方式处理
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw (Error) cause;
+            }
+        }
+    }
+}
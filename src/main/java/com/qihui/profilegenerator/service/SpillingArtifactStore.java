@@ -0,0 +1,248 @@
+package com.qihui.profilegenerator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内存优先、可溢出到内存映射文件的产物存储
+ * 产物默认保存在堆内存中；单个产物超过溢出阈值或堆内存用量超过上限时写入暂存目录并以内存映射方式读取。
+ * 按总大小和写入后的存活时间淘汰，淘汰或替换时删除对应的溢出文件。
+ */
+@Component
+@Slf4j
+public class SpillingArtifactStore implements ArtifactStore, AutoCloseable {
+
+    private final Cache<String, StoredArtifact> artifacts;
+    private final long memoryLimit;
+    private final long spillThreshold;
+    private final Path scratchDir;
+    private final AtomicLong heapBytes = new AtomicLong();
+    private final AtomicLong mappedBytes = new AtomicLong();
+    // key -> 锁及其持有（和等待）者数量，没有持有者时移除
+    private final ConcurrentHashMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+
+    public SpillingArtifactStore(MeterRegistry meterRegistry,
+                                 @Value("${profile.artifacts.max-size-mb:512}") long maxSizeMb,
+                                 @Value("${profile.artifacts.max-age-hours:24}") long maxAgeHours,
+                                 @Value("${profile.artifacts.memory-limit-mb:128}") long memoryLimitMb,
+                                 @Value("${profile.artifacts.spill-threshold-kb:512}") long spillThresholdKb,
+                                 @Value("${profile.artifacts.scratch-dir:}") String scratchDir) throws IOException {
+        this.memoryLimit = memoryLimitMb * 1024 * 1024;
+        this.spillThreshold = spillThresholdKb * 1024;
+        this.artifacts = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String id, StoredArtifact artifact) -> artifact.size())
+                .expireAfterWrite(Duration.ofHours(maxAgeHours))
+                // 过期的溢出文件及时删除，不等下一次访问
+                .scheduler(Scheduler.systemScheduler())
+                // 同步释放，保证堆内存用量在下一次写入前已更新
+                .executor(Runnable::run)
+                .removalListener((String id, StoredArtifact artifact, RemovalCause cause) -> {
+                    if (artifact != null) {
+                        release(artifact);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, artifacts, "profile.artifacts");
+        Gauge.builder("profile.artifacts.bytes", heapBytes, AtomicLong::get)
+                .tag("storage", "heap")
+                .baseUnit("bytes")
+                .description("产物存储占用的字节数")
+                .register(meterRegistry);
+        Gauge.builder("profile.artifacts.bytes", mappedBytes, AtomicLong::get)
+                .tag("storage", "mapped")
+                .baseUnit("bytes")
+                .description("产物存储占用的字节数")
+                .register(meterRegistry);
+
+        if (scratchDir == null || scratchDir.isBlank()) {
+            this.scratchDir = null;
+        } else {
+            this.scratchDir = Paths.get(scratchDir).toAbsolutePath();
+            Files.createDirectories(this.scratchDir);
+            log.info("产物存储溢出目录: {}", this.scratchDir);
+        }
+    }
+
+    @Override
+    public void put(String key, String name, byte[] content) throws IOException {
+        artifacts.put(id(key, name), store(content));
+    }
+
+    @Override
+    public void putIfAbsent(String key, String name, byte[] content) throws IOException {
+        StoredArtifact stored = store(content);
+        if (artifacts.asMap().putIfAbsent(id(key, name), stored) != null) {
+            release(stored);
+        }
+    }
+
+    @Override
+    public void replace(String key, Map<String, byte[]> contents) throws IOException {
+        // 先全部写好再替换，中途失败时释放已写入的内容，不改变已保存的产物
+        Map<String, StoredArtifact> stored = new HashMap<>();
+        try {
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                stored.put(id(key, entry.getKey()), store(entry.getValue()));
+            }
+        } catch (IOException | RuntimeException e) {
+            stored.values().forEach(this::release);
+            throw e;
+        }
+        String prefix = id(key, "");
+        artifacts.asMap().keySet().removeIf(id -> id.startsWith(prefix) && !stored.containsKey(id));
+        artifacts.putAll(stored);
+    }
+
+    @Override
+    public Optional<Artifact> get(String key, String name) {
+        StoredArtifact artifact = artifacts.getIfPresent(id(key, name));
+        if (artifact == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Artifact(artifact.content().asReadOnlyBuffer(), artifact.createdAt()));
+    }
+
+    @Override
+    public KeyLock lock(String key) throws IOException {
+        LockEntry entry = locks.compute(key, (k, existing) -> {
+            LockEntry result = existing != null ? existing : new LockEntry();
+            result.holders++;
+            return result;
+        });
+        try {
+            entry.lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            unregister(key, entry);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待key锁时被中断: " + key);
+        }
+        return new HeldLock(key, entry);
+    }
+
+    /**
+     * 删除所有产物及溢出文件
+     */
+    @Override
+    public void close() {
+        artifacts.invalidateAll();
+    }
+
+    private StoredArtifact store(byte[] content) throws IOException {
+        if (content.length >= spillThreshold || heapBytes.get() + content.length > memoryLimit) {
+            return spill(content);
+        }
+        heapBytes.addAndGet(content.length);
+        return new StoredArtifact(ByteBuffer.wrap(content), null, System.currentTimeMillis());
+    }
+
+    /**
+     * 写入暂存文件并映射为只读缓冲区，映射建立后不再需要文件通道
+     */
+    private StoredArtifact spill(byte[] content) throws IOException {
+        Path file = scratchDir != null
+                ? Files.createTempFile(scratchDir, "artifact-", ".bin")
+                : Files.createTempFile("artifact-", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer source = ByteBuffer.wrap(content);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, content.length);
+            mappedBytes.addAndGet(content.length);
+            return new StoredArtifact(mapped, file, System.currentTimeMillis());
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private void release(StoredArtifact artifact) {
+        if (artifact.file() == null) {
+            heapBytes.addAndGet(-artifact.size());
+            return;
+        }
+        mappedBytes.addAndGet(-artifact.size());
+        try {
+            // 已映射的内容在缓冲区被回收前仍可读取，删除文件不影响正在读取的请求
+            Files.deleteIfExists(artifact.file());
+        } catch (IOException e) {
+            log.warn("删除产物溢出文件失败: {}, {}", artifact.file(), e.getMessage());
+        }
+    }
+
+    private void unregister(String key, LockEntry entry) {
+        locks.computeIfPresent(key, (k, existing) -> existing == entry && --existing.holders == 0 ? null : existing);
+    }
+
+    private static String id(String key, String name) {
+        return key + "/" + name;
+    }
+
+    /**
+     * 存储中的产物
+     * @param content 内容，file为null时是堆内存缓冲区，否则是文件的内存映射
+     * @param file 溢出文件
+     * @param createdAt 写入时间（毫秒）
+     */
+    private record StoredArtifact(ByteBuffer content, Path file, long createdAt) {
+
+        int size() {
+            return content.capacity();
+        }
+    }
+
+    private static final class LockEntry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // 只在locks.compute中修改
+        private int holders;
+    }
+
+    private final class HeldLock implements KeyLock {
+
+        private final String key;
+        private final LockEntry entry;
+        private boolean closed;
+
+        private HeldLock(String key, LockEntry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            entry.lock.unlock();
+            unregister(key, entry);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.IOException;
+
+/**
+ * 流水线阶段并发闸门
+ * 每个阶段开始前进入闸门，阶段结束后离开，用于限制同一阶段同时执行的流水线数量
+ */
+public interface StageGate {
+
+    /**
+     * 不做任何限制的闸门
+     */
+    StageGate OPEN = stage -> Pass.NONE;
+
+    /**
+     * 进入阶段，必要时等待
+     * @param stage 处理阶段
+     * @return 通行凭证，阶段结束后关闭
+     * @throws IOException 等待被中断时抛出
+     */
+    Pass enter(ProfileStage stage) throws IOException;
+
+    /**
+     * 通行凭证，关闭时释放占用的名额
+     */
+    interface Pass extends AutoCloseable {
+
+        /**
+         * 没有占用名额的凭证
+         */
+        Pass NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 独立HTML渲染器
+ * 将中英文配置注入template.html，生成可以直接打开的个人主页
+ */
+public interface StandaloneHtmlRenderer {
+
+    /**
+     * 渲染独立HTML
+     * @param configs 中英文配置
+     * @param out 输出流（UTF-8编码）
+     * @throws IOException 渲染失败时抛出
+     */
+    void render(ProfileConfigs configs, OutputStream out) throws IOException;
+
+    /**
+     * 渲染独立HTML，同时得到gzip压缩结果
+     * 默认完整渲染后整体压缩；支持的渲染器按预压缩的模板分段拼接，
+     * 只有一种语言变化时只重新生成该语言的配置片段，另一种语言复用上次渲染的结果
+     * @param configs 中英文配置
+     * @param changed 只有一种语言变化时为该语言，为null时完整渲染
+     * @return HTML及其gzip压缩结果
+     * @throws IOException 渲染失败时抛出
+     */
+    default RenderedHtml renderPage(ProfileConfigs configs, ProfileLanguage changed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(configs, out);
+        return RenderedHtml.of(out.toByteArray());
+    }
+}
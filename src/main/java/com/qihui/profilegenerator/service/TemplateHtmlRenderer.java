@@ -0,0 +1,159 @@
+package com.qihui.profilegenerator.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+
+/**
+ * 基于Java的独立HTML渲染器
+ * 启动时加载template.html并按配置占位符预先切分，三段静态内容预先编码为UTF-8字节并预先压缩，
+ * 渲染时只序列化并压缩两段配置JSON，按字节拼接得到HTML和gzip压缩结果，输出与build-standalone.js保持一致。
+ * 每个key最近一次渲染的中英文配置片段保留在缓存中，只修改一种语言时另一种语言直接复用。
+ */
+@Component
+@ConditionalOnProperty(name = "profile.renderer.mode", havingValue = "java", matchIfMissing = true)
+@Slf4j
+public class TemplateHtmlRenderer implements StandaloneHtmlRenderer {
+
+    // 与build-standalone.js中的占位符匹配规则一致
+    private static final Pattern ZH_PATTERN = Pattern.compile("content = \\{\\}; // 初始化为空对象\\s+// CONFIG_PLACEHOLDER_ZH");
+    private static final Pattern ALT_ZH_PATTERN = Pattern.compile("content = \\{\\}; // CONFIG_PLACEHOLDER_ZH");
+    private static final Pattern EN_PATTERN = Pattern.compile("content = \\{\\}; // 初始化为空对象\\s+// CONFIG_PLACEHOLDER_EN");
+    private static final Pattern ALT_EN_PATTERN = Pattern.compile("content = \\{\\}; // CONFIG_PLACEHOLDER_EN");
+
+    // 静态内容只压缩一次，使用最高压缩级别；配置JSON每次渲染都要压缩，使用默认级别
+    private static final int TEMPLATE_LEVEL = Deflater.BEST_COMPRESSION;
+    private static final int CONFIG_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    private final ObjectWriter jsonWriter;
+    // key -> 最近一次渲染的配置片段
+    private final Cache<String, RenderedFragments> fragments;
+
+    // 模板按两个占位符切分后的三段静态内容，已包含占位符处的"content = "和";"
+    private final GzipSegments.Segment head;
+    private final GzipSegments.Segment middle;
+    private final GzipSegments.Segment tail;
+
+    public TemplateHtmlRenderer(Resource template) throws IOException {
+        this(template, 1000);
+    }
+
+    @Autowired
+    public TemplateHtmlRenderer(
+            @Value("${profile.renderer.template:classpath:static/profile_website/template.html}") Resource template,
+            @Value("${profile.renderer.fragment-cache-size:1000}") long fragmentCacheSize)
+            throws IOException {
+        String html = template.getContentAsString(StandardCharsets.UTF_8);
+        Matcher zh = find(html, ZH_PATTERN, ALT_ZH_PATTERN, "CONFIG_PLACEHOLDER_ZH");
+        Matcher en = find(html, EN_PATTERN, ALT_EN_PATTERN, "CONFIG_PLACEHOLDER_EN");
+        if (en.start() < zh.end()) {
+            throw new IllegalStateException("模板中的英文配置占位符必须位于中文配置占位符之后");
+        }
+        this.head = templateSegment(html.substring(0, zh.start()) + "content = ");
+        this.middle = templateSegment(";" + html.substring(zh.end(), en.start()) + "content = ");
+        this.tail = templateSegment(";" + html.substring(en.end()));
+        this.jsonWriter = createJsonWriter();
+        this.fragments = Caffeine.newBuilder().maximumSize(fragmentCacheSize).build();
+        log.info("HTML模板已加载，长度: {} 字符，预压缩后: {} 字节", html.length(),
+                head.deflated().length + middle.deflated().length + tail.deflated().length);
+    }
+
+    @Override
+    public void render(ProfileConfigs configs, OutputStream out) throws IOException {
+        // 只需要未压缩的HTML，直接把配置JSON写入输出流
+        out.write(head.raw());
+        jsonWriter.writeValue(out, configs.zhConfig());
+        out.write(middle.raw());
+        jsonWriter.writeValue(out, configs.enConfig());
+        out.write(tail.raw());
+        out.flush();
+    }
+
+    @Override
+    public RenderedHtml renderPage(ProfileConfigs configs, ProfileLanguage changed) throws IOException {
+        RenderedFragments cached = changed != null ? fragments.getIfPresent(configs.key()) : null;
+        // 未变化的语言只有在YAML原文与缓存一致时才复用片段，否则（如重启后或文件被外部修改）重新序列化
+        GzipSegments.Segment zhJson = changed != ProfileLanguage.ZH && cached != null
+                && cached.zhYaml().equals(configs.zhYaml()) ? cached.zhJson() : configSegment(configs.zhConfig());
+        GzipSegments.Segment enJson = changed != ProfileLanguage.EN && cached != null
+                && cached.enYaml().equals(configs.enYaml()) ? cached.enJson() : configSegment(configs.enConfig());
+        fragments.put(configs.key(), new RenderedFragments(configs.zhYaml(), zhJson, configs.enYaml(), enJson));
+
+        List<GzipSegments.Segment> segments = List.of(head, zhJson, middle, enJson, tail);
+        return new RenderedHtml(GzipSegments.concatRaw(segments), GzipSegments.concatGzip(segments));
+    }
+
+    private static GzipSegments.Segment templateSegment(String text) {
+        return GzipSegments.compress(text.getBytes(StandardCharsets.UTF_8), TEMPLATE_LEVEL);
+    }
+
+    private GzipSegments.Segment configSegment(Object config) throws IOException {
+        return GzipSegments.compress(jsonWriter.writeValueAsBytes(config), CONFIG_LEVEL);
+    }
+
+    private static Matcher find(String html, Pattern pattern, Pattern altPattern, String name) {
+        Matcher matcher = pattern.matcher(html);
+        if (matcher.find()) {
+            return matcher;
+        }
+        matcher = altPattern.matcher(html);
+        if (matcher.find()) {
+            return matcher;
+        }
+        throw new IllegalStateException("模板中找不到配置占位符: " + name);
+    }
+
+    /**
+     * 一个key渲染后的中英文配置片段（JSON及其压缩结果），同时记录对应的YAML原文用于判断片段是否仍然有效
+     */
+    private record RenderedFragments(String zhYaml, GzipSegments.Segment zhJson,
+                                     String enYaml, GzipSegments.Segment enJson) {
+    }
+
+    /**
+     * 创建与JSON.stringify(value, null, 2)格式一致的JSON输出器
+     */
+    private static ObjectWriter createJsonWriter() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        ObjectMapper mapper = new ObjectMapper()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setDateFormat(dateFormat);
+        // 输出流由调用方管理，序列化后不能关闭
+        mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        DefaultIndenter indenter = new DefaultIndenter("  ", "\n");
+        Separators separators = Separators.createDefaultInstance()
+                .withObjectFieldValueSpacing(Separators.Spacing.AFTER)
+                .withObjectEmptySeparator("")
+                .withArrayEmptySeparator("");
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter()
+                .withSeparators(separators);
+        printer.indentObjectsWith(indenter);
+        printer.indentArraysWith(indenter);
+        return mapper.writer(printer);
+    }
+}
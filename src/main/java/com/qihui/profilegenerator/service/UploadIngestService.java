@@ -0,0 +1,293 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传文件接收服务
+ * 只读取一次上传流，按固定分片大小切分：第一个分片的头部用于识别文件类型，
+ * 每个分片同时用于计算哈希、提交OSS分片上传并保留给后续解析。
+ * 内容不超过一个分片时改为普通上传；超过暂存阈值后内容转存到临时文件，不再占用堆内存。
+ */
+@Service
+@Slf4j
+public class UploadIngestService {
+
+    // OSS要求除最后一个分片外每个分片不小于100KB
+    private static final int MIN_PART_SIZE = 100 * 1024;
+    // 第一个分片的初始缓冲区大小，小文件不必按整个分片分配内存
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final OssService ossService;
+    private final ContentTypeDetector contentTypeDetector;
+    private final AsyncTaskExecutor ossUploadExecutor;
+    private final int partSize;
+    private final long spoolThreshold;
+    private final int sniffBytes;
+    private final Path spoolDir;
+    private final Counter ingestedBytes;
+
+    public UploadIngestService(OssService ossService,
+                               ContentTypeDetector contentTypeDetector,
+                               AsyncTaskExecutor ossUploadExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${profile.ingest.part-size-kb:1024}") int partSizeKb,
+                               @Value("${profile.ingest.spool-threshold-kb:2048}") long spoolThresholdKb,
+                               @Value("${profile.ingest.sniff-bytes:8192}") int sniffBytes,
+                               @Value("${profile.ingest.spool-dir:}") String spoolDir) throws IOException {
+        if (partSizeKb * 1024 < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("profile.ingest.part-size-kb不能小于100");
+        }
+        this.ossService = ossService;
+        this.contentTypeDetector = contentTypeDetector;
+        this.ossUploadExecutor = ossUploadExecutor;
+        this.partSize = partSizeKb * 1024;
+        this.spoolThreshold = spoolThresholdKb * 1024;
+        this.sniffBytes = sniffBytes;
+        if (spoolDir == null || spoolDir.isBlank()) {
+            this.spoolDir = null;
+        } else {
+            this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+            Files.createDirectories(this.spoolDir);
+        }
+        this.ingestedBytes = Counter.builder("profile.ingest.bytes")
+                .baseUnit("bytes")
+                .description("接收的上传内容字节数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 接收任意类型的上传内容并在后台上传到OSS
+     * @see #ingest(InputStream, String, Set)
+     */
+    public IngestedUpload ingest(InputStream inputStream, String ossPath) throws IOException {
+        return ingest(inputStream, ossPath, Set.of());
+    }
+
+    /**
+     * 接收上传内容并在后台上传到OSS
+     * 文件类型在读到第一个分片（或全部内容）时根据文件头识别，类型不符时在开始上传前拒绝
+     * @param inputStream 上传流，只读取一次，由调用方关闭
+     * @param ossPath 自定义的OSS路径（不包含dirPrefix）
+     * @param acceptedTypes 允许的文件类型，为空时不限制
+     * @return 接收结果，使用完毕后必须关闭
+     * @throws IOException 读取上传流或初始化OSS上传失败时抛出
+     * @throws IllegalArgumentException 文件类型不在允许范围内时抛出
+     */
+    public IngestedUpload ingest(InputStream inputStream, String ossPath, Set<String> acceptedTypes) throws IOException {
+        // 上传耗时从开始读取上传流算起，包含接收客户端数据的时间
+        long startNanos = System.nanoTime();
+        MessageDigest digest = sha256();
+        Spool spool = new Spool();
+        OssMultipartUpload multipart = null;
+        String contentType = null;
+        // 第一个分片的缓冲区从较小的容量开始按需扩大，之后的分片直接按分片大小分配
+        byte[] buffer = new byte[Math.min(partSize, INITIAL_BUFFER_SIZE)];
+        int filled = 0;
+
+        try {
+            int read;
+            while ((read = inputStream.read(buffer, filled, buffer.length - filled)) != -1) {
+                digest.update(buffer, filled, read);
+                filled += read;
+                if (filled < buffer.length) {
+                    continue;
+                }
+                if (filled < partSize) {
+                    buffer = Arrays.copyOf(buffer, Math.min(partSize, buffer.length * 2));
+                    continue;
+                }
+                // 凑满一个分片：交给OSS并行上传并保留给解析，之后不再修改该缓冲区
+                if (contentType == null) {
+                    contentType = sniff(buffer, filled, acceptedTypes);
+                }
+                if (multipart == null) {
+                    multipart = ossService.startMultipartUpload(ossPath, ossUploadExecutor);
+                }
+                multipart.uploadPart(buffer, filled);
+                spool.append(buffer, filled);
+                buffer = new byte[partSize];
+                filled = 0;
+            }
+
+            if (contentType == null) {
+                contentType = sniff(buffer, filled, acceptedTypes);
+            }
+            if (filled > 0) {
+                spool.append(buffer, filled);
+            }
+            spool.finish();
+
+            CompletableFuture<String> upload;
+            if (multipart == null) {
+                upload = uploadWhole(buffer, filled, ossPath);
+            } else {
+                if (filled > 0) {
+                    multipart.uploadPart(buffer, filled);
+                }
+                upload = multipart.complete();
+            }
+
+            CompletableFuture<Long> uploadElapsed = upload.thenApply(
+                    objectKey -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            ingestedBytes.increment(spool.size);
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            log.info("上传内容接收完成，类型: {}, 大小: {}字节, SHA-256: {}, 暂存方式: {}",
+                    contentType, spool.size, sha256, spool.file != null ? "临时文件" : "内存");
+            return new IngestedUpload(contentType, sha256, spool.size, spool.toResource(), spool.file,
+                    upload, uploadElapsed);
+        } catch (IOException | RuntimeException e) {
+            if (multipart != null) {
+                // 等待已提交的分片结束后再取消，避免取消后仍有分片到达
+                multipart.abort();
+            }
+            spool.discard();
+            throw e;
+        }
+    }
+
+    private String sniff(byte[] data, int length, Set<String> acceptedTypes) {
+        String contentType = contentTypeDetector.detect(data, Math.min(sniffBytes, length));
+        if (!acceptedTypes.isEmpty() && !acceptedTypes.contains(contentType)) {
+            throw new IllegalArgumentException("不支持的文件类型: " + contentType + "，只支持: " + String.join("、", acceptedTypes));
+        }
+        return contentType;
+    }
+
+    private CompletableFuture<String> uploadWhole(byte[] data, int length, String ossPath) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ossService.uploadBytesToPath(data, length, ossPath);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ossUploadExecutor);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 内容暂存：不超过阈值时直接引用分片缓冲区，超过后写入临时文件
+     */
+    private final class Spool {
+
+        private final List<byte[]> chunks = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private long size;
+        private Path file;
+        private OutputStream out;
+
+        void append(byte[] data, int length) throws IOException {
+            size += length;
+            if (out == null && size > spoolThreshold) {
+                file = spoolDir != null
+                        ? Files.createTempFile(spoolDir, "ingest-", ".spool")
+                        : Files.createTempFile("ingest-", ".spool");
+                out = Files.newOutputStream(file);
+                for (int i = 0; i < chunks.size(); i++) {
+                    out.write(chunks.get(i), 0, lengths.get(i));
+                }
+                chunks.clear();
+                lengths.clear();
+            }
+            if (out != null) {
+                out.write(data, 0, length);
+            } else {
+                chunks.add(data);
+                lengths.add(length);
+            }
+        }
+
+        void finish() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+
+        Resource toResource() {
+            return file != null ? new FileSystemResource(file) : new ChunkedByteArrayResource(chunks, lengths, size);
+        }
+
+        void discard() {
+            try {
+                if (out != null) {
+                    out.close();
+                }
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                log.warn("清理上传暂存文件失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 由多个内存分片组成的只读资源，可重复读取
+     */
+    private static final class ChunkedByteArrayResource extends AbstractResource {
+
+        private final List<byte[]> chunks;
+        private final List<Integer> lengths;
+        private final long size;
+
+        ChunkedByteArrayResource(List<byte[]> chunks, List<Integer> lengths, long size) {
+            this.chunks = List.copyOf(chunks);
+            this.lengths = List.copyOf(lengths);
+            this.size = size;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            List<InputStream> streams = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                streams.add(new ByteArrayInputStream(chunks.get(i), 0, lengths.get(i)));
+            }
+            return new SequenceInputStream(Collections.enumeration(streams));
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+
+        @Override
+        public String getDescription() {
+            return "内存中的上传内容 [" + size + "字节]";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.qihui.profilegenerator.service;
+
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.regex.Pattern;
+
+/**
+ * YAML配置解析器
+ * 解析规则与build-standalone.js使用的js-yaml保持一致
+ */
+@Component
+public class YamlConfigParser {
+
+    /**
+     * 解析YAML文本
+     * @param yaml YAML文本
+     * @return 解析后的对象（Map、List或标量）
+     */
+    public Object parse(String yaml) {
+        // Yaml实例不是线程安全的，每次解析单独创建
+        LoaderOptions loaderOptions = new LoaderOptions();
+        DumperOptions dumperOptions = new DumperOptions();
+        Yaml parser = new Yaml(new SafeConstructor(loaderOptions), new Representer(dumperOptions),
+                dumperOptions, loaderOptions, new CoreSchemaResolver());
+        return parser.load(yaml);
+    }
+
+    /**
+     * 把配置对象输出为块格式的YAML文本
+     * @param config 配置对象（Map、List或标量）
+     * @return YAML文本
+     */
+    public String dump(Object config) {
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        dumperOptions.setIndent(2);
+        dumperOptions.setIndicatorIndent(2);
+        dumperOptions.setIndentWithIndicator(true);
+        dumperOptions.setAllowUnicode(true);
+        dumperOptions.setWidth(Integer.MAX_VALUE);
+        return new Yaml(dumperOptions).dump(config);
+    }
+
+    /**
+     * js-yaml默认使用YAML 1.2核心模式，yes/no/on/off等按字符串处理，
+     * 而SnakeYAML默认按YAML 1.1将其识别为布尔值，这里只替换布尔规则。
+     */
+    private static class CoreSchemaResolver extends Resolver {
+
+        private static final Pattern CORE_BOOL = Pattern.compile("^(?:true|True|TRUE|false|False|FALSE)$");
+
+        @Override
+        protected void addImplicitResolvers() {
+            addImplicitResolver(Tag.BOOL, CORE_BOOL, "tTfF");
+            addImplicitResolver(Tag.INT, INT, "-+0123456789");
+            addImplicitResolver(Tag.FLOAT, FLOAT, "-+0123456789.");
+            addImplicitResolver(Tag.MERGE, MERGE, "<");
+            addImplicitResolver(Tag.NULL, NULL, "~nN\0");
+            addImplicitResolver(Tag.NULL, EMPTY, null);
+            addImplicitResolver(Tag.TIMESTAMP, TIMESTAMP, "0123456789");
+            addImplicitResolver(Tag.YAML, YAML, "!&*");
+        }
+    }
+}
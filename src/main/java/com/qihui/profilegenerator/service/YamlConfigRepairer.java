@@ -0,0 +1,189 @@
+package com.qihui.profilegenerator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 大模型生成的YAML配置的校验和修复
+ * 先在本地处理：去掉代码块标记和标题行，解析后修正常见的结构问题并按模板需要的结构校验；
+ * 仍有问题时按顶层板块切分文本，只把出错的板块交给大模型重写，其余板块保持不变。
+ */
+@Component
+@Slf4j
+public class YamlConfigRepairer {
+
+    // 顶层键：从行首开始的"name:"
+    private static final Pattern TOP_LEVEL_KEY = Pattern.compile("^([A-Za-z_][\\w-]*)\\s*:(\\s.*)?$");
+
+    private final YamlConfigParser parser;
+    private final ProfileConfigValidator validator;
+    private final int maxRewrites;
+
+    public YamlConfigRepairer(YamlConfigParser parser, ProfileConfigValidator validator,
+                              @Value("${profile.yaml-repair.max-sections:3}") int maxRewrites) {
+        this.parser = parser;
+        this.validator = validator;
+        this.maxRewrites = maxRewrites;
+    }
+
+    /**
+     * 板块重写，通常由大模型完成
+     */
+    @FunctionalInterface
+    public interface SectionRewriter {
+        /**
+         * 重写一个板块
+         * @param section 顶层板块名称
+         * @param sectionYaml 板块原文（以"section:"开头），板块缺失时为空字符串
+         * @param problem 问题描述
+         * @return 重写后的板块YAML
+         * @throws IOException 重写失败时抛出
+         */
+        String rewrite(String section, String sectionYaml, String problem) throws IOException;
+    }
+
+    /**
+     * 本地检查结果
+     * @param yaml 清理后的YAML文本（结构被修正时为重新输出的文本）
+     * @param config 解析后的配置，无法解析时为null
+     * @param problems 各板块的问题，没有问题时为空
+     */
+    public record Check(String yaml, Object config, Map<String, String> problems) {
+
+        public boolean isValid() {
+            return problems.isEmpty();
+        }
+    }
+
+    /**
+     * 修复结果
+     * @param yaml 修复后的YAML文本
+     * @param config 解析后的配置
+     * @param rewrittenSections 由大模型重写的板块
+     */
+    public record Result(String yaml, Object config, List<String> rewrittenSections) {
+    }
+
+    /**
+     * 在本地清理、解析、修正并校验配置，不调用大模型
+     * @param yaml YAML文本
+     * @return 检查结果
+     */
+    public Check check(String yaml) {
+        String cleaned = YamlOutputCleaner.clean(yaml);
+        Object parsed;
+        try {
+            parsed = parser.parse(cleaned);
+        } catch (YAMLException e) {
+            return new Check(cleaned, null, syntaxProblems(cleaned, e));
+        }
+
+        Object config = validator.normalize(parsed);
+        String text = Objects.equals(config, parsed) ? cleaned : parser.dump(config).trim();
+        Map<String, String> problems = new LinkedHashMap<>();
+        for (ProfileConfigValidator.Problem problem : validator.validate(config)) {
+            problems.merge(problem.section(), problem.message(), (a, b) -> a + "; " + b);
+        }
+        return new Check(text, config, problems);
+    }
+
+    /**
+     * 检查配置，有问题时只重写出错的板块
+     * @param yaml YAML文本
+     * @param rewriter 板块重写
+     * @return 修复结果
+     * @throws IOException 出错的板块过多、重写失败或重写后仍不符合要求时抛出
+     */
+    public Result repair(String yaml, SectionRewriter rewriter) throws IOException {
+        Check check = check(yaml);
+        if (check.isValid()) {
+            return new Result(check.yaml(), check.config(), List.of());
+        }
+        if (check.problems().size() > maxRewrites) {
+            throw new IOException("配置问题过多，无法修复: " + check.problems());
+        }
+
+        Map<String, String> sections = splitSections(check.yaml());
+        List<String> rewritten = new ArrayList<>();
+        for (Map.Entry<String, String> problem : check.problems().entrySet()) {
+            String section = problem.getKey();
+            log.warn("配置板块 {} 不符合要求，重新生成: {}", section, problem.getValue());
+            String fixed = rewriter.rewrite(section, sections.getOrDefault(section, ""), problem.getValue());
+            sections.put(section, fixed != null ? YamlOutputCleaner.clean(fixed) : "");
+            rewritten.add(section);
+        }
+
+        Check repaired = check(String.join("\n", sections.values()));
+        if (!repaired.isValid()) {
+            throw new IOException("配置修复后仍不符合要求: " + repaired.problems());
+        }
+        return new Result(repaired.yaml(), repaired.config(), rewritten);
+    }
+
+    /**
+     * 整体解析失败时逐个板块解析，定位出错的板块
+     */
+    private Map<String, String> syntaxProblems(String yaml, YAMLException error) {
+        Map<String, String> problems = new LinkedHashMap<>();
+        for (Map.Entry<String, String> section : splitSections(yaml).entrySet()) {
+            try {
+                parser.parse(section.getValue());
+            } catch (YAMLException e) {
+                problems.put(section.getKey(), "YAML语法错误: " + summarize(e.getMessage()));
+            }
+        }
+        if (problems.isEmpty()) {
+            // 每个板块单独都能解析，问题出在板块之间，只能整体重新生成
+            problems.put("basic", "YAML语法错误: " + summarize(error.getMessage()));
+        }
+        return problems;
+    }
+
+    /**
+     * 按顶层键切分文本，保持原有顺序
+     * 第一个顶层键之前的内容（如模型输出的说明文字）丢弃
+     */
+    static Map<String, String> splitSections(String yaml) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        String current = null;
+        StringBuilder text = new StringBuilder();
+        for (String line : yaml.split("\n", -1)) {
+            var matcher = TOP_LEVEL_KEY.matcher(line);
+            if (matcher.matches() && !sections.containsKey(matcher.group(1))) {
+                if (current != null) {
+                    sections.put(current, text.toString().stripTrailing());
+                }
+                current = matcher.group(1);
+                text.setLength(0);
+            } else if (current == null) {
+                continue;
+            }
+            text.append(line).append('\n');
+        }
+        if (current != null) {
+            sections.put(current, text.toString().stripTrailing());
+        }
+        return sections;
+    }
+
+    /**
+     * 压缩解析器的错误信息（去掉换行和代码片段的缩进），作为问题描述
+     */
+    private static String summarize(String message) {
+        if (message == null) {
+            return "";
+        }
+        String compact = message.replaceAll("\\s+", " ").trim();
+        return compact.length() > 300 ? compact.substring(0, 300) + "..." : compact;
+    }
+}
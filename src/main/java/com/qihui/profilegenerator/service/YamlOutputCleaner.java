@@ -0,0 +1,48 @@
+package com.qihui.profilegenerator.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * 大模型YAML输出的逐行清理规则
+ * 识别模型常见的多余输出：Markdown代码块标记和"zh.yaml"之类的标题行
+ */
+final class YamlOutputCleaner {
+
+    // ```、```yaml、~~~
+    private static final Pattern FENCE = Pattern.compile("^\\s*(```|~~~)\\s*[A-Za-z]*\\s*$");
+    // zh.yaml、# en.yaml、**zh.yaml**、### 中文配置（zh.yaml）: 等只包含文件名的标题行
+    private static final Pattern HEADER = Pattern.compile(
+            "^\\s*(#+\\s*)?[*_`]*\\s*([^:\\s]*\\s*[（(])?(zh|en)\\.ya?ml([)）])?\\s*[*_`]*\\s*[:：]?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private YamlOutputCleaner() {
+    }
+
+    /**
+     * 是否是应当丢弃的多余行
+     */
+    static boolean isNoiseLine(String line) {
+        return FENCE.matcher(line).matches() || HEADER.matcher(line).matches();
+    }
+
+    /**
+     * 是否是文档分隔符
+     * 分隔符必须从行首开始，缩进的"---"属于多行字符串的内容
+     */
+    static boolean isDocumentSeparator(String line) {
+        return line.startsWith("---") && line.stripTrailing().equals("---");
+    }
+
+    /**
+     * 去掉整段文本中的多余行
+     */
+    static String clean(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (String line : text.split("\n", -1)) {
+            if (!isNoiseLine(line)) {
+                result.append(line).append('\n');
+            }
+        }
+        return result.toString().trim();
+    }
+}
@@ -0,0 +1,92 @@
+package com.qihui.profilegenerator.service;
+
+import java.io.IOException;
+
+/**
+ * 流式YAML文档分割器
+ * 随大模型输出逐块接收内容，按从行首开始、独占一行的"---"分隔符切分文档，
+ * 每个文档完整后立即交给输出端，内存中只保留当前未完成的文档。
+ * 接收时顺带丢弃模型常见的多余行（代码块标记、文件名标题）。
+ */
+public class YamlStreamSplitter {
+
+    private final DocumentSink sink;
+    private final StringBuilder currentLine = new StringBuilder();
+    private final StringBuilder currentDocument = new StringBuilder();
+    private int documentIndex = 0;
+    private long totalLength = 0;
+
+    public YamlStreamSplitter(DocumentSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * 接收一段输出内容
+     * @param chunk 大模型输出的内容片段
+     * @throws IOException 输出端写入失败时抛出
+     */
+    public void accept(String chunk) throws IOException {
+        totalLength += chunk.length();
+        int start = 0;
+        int newline;
+        while ((newline = chunk.indexOf('\n', start)) >= 0) {
+            currentLine.append(chunk, start, newline);
+            completeLine();
+            start = newline + 1;
+        }
+        currentLine.append(chunk, start, chunk.length());
+    }
+
+    /**
+     * 输出结束，提交最后一个文档
+     * @throws IOException 输出端写入失败时抛出
+     */
+    public void finish() throws IOException {
+        if (!currentLine.isEmpty()) {
+            completeLine();
+        }
+        emitDocument(true);
+    }
+
+    /**
+     * 已接收的内容总长度（字符）
+     */
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    private void completeLine() throws IOException {
+        String line = currentLine.toString();
+        if (YamlOutputCleaner.isDocumentSeparator(line)) {
+            emitDocument(false);
+        } else if (!YamlOutputCleaner.isNoiseLine(line)) {
+            currentDocument.append(currentLine).append('\n');
+        }
+        currentLine.setLength(0);
+    }
+
+    private void emitDocument(boolean endOfStream) throws IOException {
+        String document = currentDocument.toString().trim();
+        currentDocument.setLength(0);
+        // 忽略开头或连续分隔符产生的空文档
+        if (document.isEmpty()) {
+            return;
+        }
+        sink.accept(documentIndex++, document, endOfStream);
+    }
+
+    /**
+     * 文档输出端
+     */
+    @FunctionalInterface
+    public interface DocumentSink {
+        /**
+         * 接收一个完整的文档
+         * @param index 文档序号，从0开始
+         * @param document 文档内容
+         * @param endOfStream 是否因输出结束而提交（而不是遇到分隔符）
+         * @throws IOException 写入失败时抛出
+         */
+        void accept(int index, String document, boolean endOfStream) throws IOException;
+    }
+}
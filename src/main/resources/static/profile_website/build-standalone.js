@@ -1,6 +1,7 @@
 const fs = require('fs');
 const path = require('path');
 const yaml = require('js-yaml');
+const { injectConfig, clearConfig, renderStandalone } = require('./render-core');
 
 // 处理命令行参数
 const args = process.argv.slice(2);
@@ -54,32 +55,8 @@ if (configDir) {
     const zhConfigContent = fs.readFileSync(zhConfigPath, 'utf8');
     const enConfigContent = fs.readFileSync(enConfigPath, 'utf8');
     
-    // 解析YAML
-    const zhConfig = yaml.load(zhConfigContent);
-    const enConfig = yaml.load(enConfigContent);
-    
-    // 替换占位符，注入配置到模板中
-    let result = template;
-    
-    // 替换中文配置占位符
-    const zhPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_ZH/;
-    if (template.match(zhPattern)) {
-      result = result.replace(zhPattern, `content = ${JSON.stringify(zhConfig, null, 2)};`);
-    } else {
-      // 尝试另一种格式
-      const altZhPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_ZH/;
-      result = result.replace(altZhPattern, `content = ${JSON.stringify(zhConfig, null, 2)};`);
-    }
-    
-    // 替换英文配置占位符
-    const enPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_EN/;
-    if (result.match(enPattern)) {
-      result = result.replace(enPattern, `content = ${JSON.stringify(enConfig, null, 2)};`);
-    } else {
-      // 尝试另一种格式
-      const altEnPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_EN/;
-      result = result.replace(altEnPattern, `content = ${JSON.stringify(enConfig, null, 2)};`);
-    }
+    // 解析YAML并注入配置到模板中
+    const result = renderStandalone(template, zhConfigContent, enConfigContent);
     
     // 写入输出文件
     fs.writeFileSync(outputPath, result);
@@ -111,50 +88,10 @@ if (customConfigPath) {
     // 根据文件名判断，通常 zh 在文件名中表示中文
     const isZhConfig = customConfigPath.includes('zh') || customConfigPath.includes('CN') || customConfigPath.includes('中文');
     
-    // 替换占位符，注入配置到模板中
-    let result = template;
-    
-    if (isZhConfig) {
-      // 替换中文配置占位符
-      const zhPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_ZH/;
-      if (template.match(zhPattern)) {
-        result = result.replace(zhPattern, `content = ${JSON.stringify(customConfig, null, 2)};`);
-      } else {
-        // 尝试另一种格式
-        const altZhPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_ZH/;
-        result = result.replace(altZhPattern, `content = ${JSON.stringify(customConfig, null, 2)};`);
-      }
-      
-      // 清空英文配置
-      const enPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_EN/;
-      if (result.match(enPattern)) {
-        result = result.replace(enPattern, `content = {}; // 初始化为空对象\n      // CONFIG_PLACEHOLDER_EN`);
-      } else {
-        // 尝试另一种格式
-        const altEnPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_EN/;
-        result = result.replace(altEnPattern, `content = {}; // CONFIG_PLACEHOLDER_EN`);
-      }
-    } else {
-      // 替换英文配置占位符
-      const enPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_EN/;
-      if (result.match(enPattern)) {
-        result = result.replace(enPattern, `content = ${JSON.stringify(customConfig, null, 2)};`);
-      } else {
-        // 尝试另一种格式
-        const altEnPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_EN/;
-        result = result.replace(altEnPattern, `content = ${JSON.stringify(customConfig, null, 2)};`);
-      }
-      
-      // 清空中文配置
-      const zhPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_ZH/;
-      if (result.match(zhPattern)) {
-        result = result.replace(zhPattern, `content = {}; // 初始化为空对象\n      // CONFIG_PLACEHOLDER_ZH`);
-      } else {
-        // 尝试另一种格式
-        const altZhPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_ZH/;
-        result = result.replace(altZhPattern, `content = {}; // CONFIG_PLACEHOLDER_ZH`);
-      }
-    }
+    // 注入配置到对应语言的占位符，清空另一种语言的配置
+    const result = isZhConfig
+      ? clearConfig(injectConfig(template, 'zh', customConfig), 'en')
+      : clearConfig(injectConfig(template, 'en', customConfig), 'zh');
     
     // 写入输出文件
     fs.writeFileSync(outputPath, result);
@@ -168,38 +105,12 @@ if (customConfigPath) {
 } else if (!configDir) {
   // 使用默认的双语言配置
   
-  // 读取中文配置
-  const zhConfigPath = path.join(__dirname, 'config/sample/zh.yaml');
-  const zhConfigContent = fs.readFileSync(zhConfigPath, 'utf8');
-  const zhConfig = yaml.load(zhConfigContent);
-
-  // 读取英文配置
-  const enConfigPath = path.join(__dirname, 'config/sample/en.yaml');
-  const enConfigContent = fs.readFileSync(enConfigPath, 'utf8');
-  const enConfig = yaml.load(enConfigContent);
-
-  // 替换占位符，注入配置到模板中
-  let result = template;
+  // 读取中英文配置
+  const zhConfigContent = fs.readFileSync(path.join(__dirname, 'config/sample/zh.yaml'), 'utf8');
+  const enConfigContent = fs.readFileSync(path.join(__dirname, 'config/sample/en.yaml'), 'utf8');
 
-  // 替换中文配置占位符
-  const zhPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_ZH/;
-  if (template.match(zhPattern)) {
-    result = result.replace(zhPattern, `content = ${JSON.stringify(zhConfig, null, 2)};`);
-  } else {
-    // 尝试另一种格式
-    const altZhPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_ZH/;
-    result = result.replace(altZhPattern, `content = ${JSON.stringify(zhConfig, null, 2)};`);
-  }
-
-  // 替换英文配置占位符
-  const enPattern = /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_EN/;
-  if (result.match(enPattern)) {
-    result = result.replace(enPattern, `content = ${JSON.stringify(enConfig, null, 2)};`);
-  } else {
-    // 尝试另一种格式
-    const altEnPattern = /content = \{\}; \/\/ CONFIG_PLACEHOLDER_EN/;
-    result = result.replace(altEnPattern, `content = ${JSON.stringify(enConfig, null, 2)};`);
-  }
+  // 解析YAML并注入配置到模板中
+  const result = renderStandalone(template, zhConfigContent, enConfigContent);
 
   // 写入输出文件
   fs.writeFileSync(outputPath, result);
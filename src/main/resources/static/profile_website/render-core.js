@@ -0,0 +1,43 @@
+const yaml = require('js-yaml');
+
+// 配置占位符，每种语言先匹配带注释的格式，再尝试另一种格式
+const PLACEHOLDERS = {
+  zh: {
+    pattern: /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_ZH/,
+    altPattern: /content = \{\}; \/\/ CONFIG_PLACEHOLDER_ZH/,
+    marker: 'CONFIG_PLACEHOLDER_ZH'
+  },
+  en: {
+    pattern: /content = \{\}; \/\/ 初始化为空对象\s+\/\/ CONFIG_PLACEHOLDER_EN/,
+    altPattern: /content = \{\}; \/\/ CONFIG_PLACEHOLDER_EN/,
+    marker: 'CONFIG_PLACEHOLDER_EN'
+  }
+};
+
+// 把配置注入到指定语言的占位符
+function injectConfig(html, lang, config) {
+  const { pattern, altPattern } = PLACEHOLDERS[lang];
+  const replacement = `content = ${JSON.stringify(config, null, 2)};`;
+  if (html.match(pattern)) {
+    return html.replace(pattern, replacement);
+  }
+  return html.replace(altPattern, replacement);
+}
+
+// 清空指定语言的配置，保留占位符
+function clearConfig(html, lang) {
+  const { pattern, altPattern, marker } = PLACEHOLDERS[lang];
+  if (html.match(pattern)) {
+    return html.replace(pattern, `content = {}; // 初始化为空对象\n      // ${marker}`);
+  }
+  return html.replace(altPattern, `content = {}; // ${marker}`);
+}
+
+// 解析中英文YAML配置并注入模板，得到独立HTML
+function renderStandalone(template, zhConfigContent, enConfigContent) {
+  const zhConfig = yaml.load(zhConfigContent);
+  const enConfig = yaml.load(enConfigContent);
+  return injectConfig(injectConfig(template, 'zh', zhConfig), 'en', enConfig);
+}
+
+module.exports = { injectConfig, clearConfig, renderStandalone };
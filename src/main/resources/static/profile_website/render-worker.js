@@ -0,0 +1,60 @@
+const fs = require('fs');
+const path = require('path');
+const { renderStandalone } = require('./render-core');
+
+// 常驻渲染进程：启动时加载模板，之后通过标准输入输出逐个处理渲染请求
+// 帧格式: 1字节类型 + 4字节大端长度 + 内容
+// 请求: R 渲染（内容为JSON {"zh": 中文YAML, "en": 英文YAML}），P 健康检查
+// 响应: H 渲染得到的HTML，E 错误信息，P 健康检查应答
+// 标准输出只用于传输帧，日志全部输出到标准错误
+console.log = console.error;
+
+const HEADER_LENGTH = 5;
+
+// 读取模板
+const template = fs.readFileSync(path.join(__dirname, 'template.html'), 'utf8');
+
+let pending = Buffer.alloc(0);
+
+process.stdin.on('data', chunk => {
+  pending = pending.length === 0 ? chunk : Buffer.concat([pending, chunk]);
+  while (pending.length >= HEADER_LENGTH) {
+    const length = pending.readUInt32BE(1);
+    if (pending.length < HEADER_LENGTH + length) {
+      break;
+    }
+    const type = String.fromCharCode(pending[0]);
+    const payload = pending.subarray(HEADER_LENGTH, HEADER_LENGTH + length);
+    pending = pending.subarray(HEADER_LENGTH + length);
+    handle(type, payload);
+  }
+});
+
+// 标准输入关闭表示JVM不再使用该进程
+process.stdin.on('end', () => process.exit(0));
+
+function handle(type, payload) {
+  if (type === 'P') {
+    writeFrame('P', Buffer.alloc(0));
+    return;
+  }
+  if (type !== 'R') {
+    writeFrame('E', Buffer.from(`未知的请求类型: ${type}`, 'utf8'));
+    return;
+  }
+  try {
+    const { zh, en } = JSON.parse(payload.toString('utf8'));
+    writeFrame('H', Buffer.from(renderStandalone(template, zh, en), 'utf8'));
+  } catch (error) {
+    writeFrame('E', Buffer.from(`生成HTML失败: ${error.message}`, 'utf8'));
+  }
+}
+
+function writeFrame(type, body) {
+  const header = Buffer.alloc(HEADER_LENGTH);
+  header.write(type, 0, 'latin1');
+  header.writeUInt32BE(body.length, 1);
+  process.stdout.write(Buffer.concat([header, body]));
+}
+
+console.log(`渲染进程已启动: ${process.pid}`);
@@ -0,0 +1,165 @@
+package com.qihui.profilegenerator.controller;
+
+import com.qihui.profilegenerator.service.OssService;
+import com.qihui.profilegenerator.service.ProfileGenerationService;
+import com.qihui.profilegenerator.service.ProfilePageCache;
+import com.qihui.profilegenerator.service.RenderedHtml;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProfilePageControllerTests {
+
+    private static final byte[] HTML = "<html><body>张三的个人主页</body></html>".repeat(20)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final FakeOssService ossService = new FakeOssService();
+    private ProfilePageCache pageCache;
+    private MockMvc mockMvc;
+    private RenderedHtml rendered;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rendered = RenderedHtml.of(HTML);
+        ossService.objects.put("alice/alice.html", new OssService.StoredObject(rendered.gzip(), "gzip", new Date()));
+        pageCache = new ProfilePageCache(ossService, new SimpleMeterRegistry(), 16, 10, 30, "");
+        // 页面接口只用到key校验
+        ProfileGenerationService generationService = new ProfileGenerationService(
+                null, null, null, null, null, null, null, null, null, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProfilePageController(generationService, pageCache)).build();
+    }
+
+    @Test
+    void returnsGzipOrIdentityWithSeparateEtags() throws Exception {
+        MvcResult gzip = mockMvc.perform(get("/p/alice").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(rendered.gzip()))
+                .andReturn();
+        MvcResult identity = mockMvc.perform(get("/p/alice"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(HTML))
+                .andReturn();
+
+        String gzipEtag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+        String identityEtag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipEtag).endsWith("-gzip\"");
+        assertThat(identityEtag).isNotEqualTo(gzipEtag);
+
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.IF_NONE_MATCH, identityEtag))
+                .andExpect(status().isNotModified());
+        // 压缩内容的标签不能用于未压缩的表示
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(HTML));
+    }
+
+    @Test
+    void doesNotCompressWhenGzipIsRejected() throws Exception {
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(HTML));
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void returnsPartialContentForSingleRange() throws Exception {
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.RANGE, "bytes=10-19")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + HTML.length))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(Arrays.copyOfRange(HTML, 10, 20)));
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(HTML, HTML.length - 5, HTML.length)));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.RANGE, "bytes=" + HTML.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + HTML.length));
+    }
+
+    @Test
+    void returnsFullContentWhenIfRangeDoesNotMatch() throws Exception {
+        String etag = mockMvc.perform(get("/p/alice")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(HTML));
+        mockMvc.perform(get("/p/alice").header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(HTML, 0, 10)));
+    }
+
+    @Test
+    void returnsNotFoundForUnknownOrInvalidKeys() throws Exception {
+        mockMvc.perform(get("/p/bob")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/p/bob")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/p/bad.key")).andExpect(status().isNotFound());
+
+        // 不存在的key短暂缓存，重复访问不再读取OSS
+        assertThat(ossService.reads("bob/bob.html")).isEqualTo(1);
+
+        // 发布后立即可见
+        pageCache.put("bob", rendered);
+        mockMvc.perform(get("/p/bob"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(HTML));
+    }
+
+    /**
+     * 只实现读取的OSS服务替身，记录每个对象的读取次数
+     */
+    private static final class FakeOssService extends OssService {
+
+        private final Map<String, OssService.StoredObject> objects = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+
+        FakeOssService() {
+            super(null, null);
+        }
+
+        @Override
+        public Optional<StoredObject> getObject(String customPath) {
+            reads.computeIfAbsent(customPath, path -> new AtomicInteger()).incrementAndGet();
+            return Optional.ofNullable(objects.get(customPath));
+        }
+
+        int reads(String customPath) {
+            AtomicInteger count = reads.get(customPath);
+            return count != null ? count.get() : 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchStageGateTests {
+
+    @Test
+    void passReleasesPermitOnClose() throws Exception {
+        BatchStageGate gate = new BatchStageGate(2, 1, 2, 4);
+
+        try (StageGate.Pass pass = gate.enter(ProfileStage.LLM)) {
+            assertThat(gate.availablePermits(ProfileStage.LLM)).isZero();
+            assertThat(gate.availablePermits(ProfileStage.EXTRACT)).isEqualTo(2);
+        }
+        assertThat(gate.availablePermits(ProfileStage.LLM)).isEqualTo(1);
+    }
+
+    @Test
+    void ungatedStagesPassImmediately() throws Exception {
+        BatchStageGate gate = new BatchStageGate(1, 1, 1, 1);
+
+        try (StageGate.Pass pass = gate.enter(ProfileStage.SIGN)) {
+            assertThat(pass).isSameAs(StageGate.Pass.NONE);
+        }
+        assertThat(gate.availablePermits(ProfileStage.YAML_WRITE)).isEqualTo(-1);
+    }
+
+    @Test
+    void derivesKeyFromFileName() {
+        assertThat(ProfileBatchService.keyFromFileName("resumes/alice_zhang.pdf")).isEqualTo("alice_zhang");
+        assertThat(ProfileBatchService.keyFromFileName("C:\\cv\\bob.v2.pdf")).isEqualTo("bob.v2");
+        assertThat(ProfileBatchService.keyFromFileName("carol")).isEqualTo("carol");
+    }
+}
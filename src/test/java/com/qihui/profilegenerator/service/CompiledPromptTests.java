@@ -0,0 +1,31 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledPromptTests {
+
+    @Test
+    void rendersVariablesAndKeepsStaticPrefix() {
+        CompiledPrompt prompt = CompiledPrompt.compile("test", "v1", "固定内容 {a: 1}\n链接: {resumeLink}。");
+
+        assertThat(prompt.render(Map.of("resumeLink", "https://example.com/a.pdf")))
+                .isEqualTo("固定内容 {a: 1}\n链接: https://example.com/a.pdf。");
+        assertThat(prompt.staticPrefix()).isEqualTo("固定内容 {a: 1}\n链接: ");
+        assertThatThrownBy(() -> prompt.render(Map.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void yamlPromptKeepsRequestVariablesAtTheEnd() {
+        CompiledPrompt prompt = new PromptRegistry().get(PromptRegistry.RESUME_TO_YAML);
+        String rendered = prompt.render(Map.of("resumeLink", "LINK"));
+
+        assertThat(rendered).startsWith(prompt.staticPrefix());
+        assertThat(rendered.strip()).endsWith("LINK");
+        assertThat(prompt.staticPrefix()).contains("【YAML结构】");
+    }
+}
@@ -0,0 +1,63 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class LlmConcurrencyLimiterTests {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() {
+        LlmConcurrencyLimiter limiter = new LlmConcurrencyLimiter(new SimpleMeterRegistry(), 1, 0, 1000);
+        LlmConcurrencyLimiter.Permit permit = limiter.acquire(LlmPriority.NORMAL);
+
+        assertThatThrownBy(() -> limiter.acquire(LlmPriority.INTERACTIVE))
+                .isInstanceOf(LlmCapacityExceededException.class);
+
+        permit.close();
+        limiter.acquire(LlmPriority.NORMAL).close();
+        assertThat(limiter.getActiveCount()).isZero();
+    }
+
+    @Test
+    void rejectsAfterQueueTimeout() {
+        LlmConcurrencyLimiter limiter = new LlmConcurrencyLimiter(new SimpleMeterRegistry(), 1, 5, 50);
+        limiter.acquire(LlmPriority.NORMAL);
+
+        assertThatThrownBy(() -> limiter.acquire(LlmPriority.NORMAL))
+                .isInstanceOf(LlmCapacityExceededException.class);
+        assertThat(limiter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void grantsWaitersByPriority() {
+        LlmConcurrencyLimiter limiter = new LlmConcurrencyLimiter(new SimpleMeterRegistry(), 1, 5, 5000);
+        LlmConcurrencyLimiter.Permit permit = limiter.acquire(LlmPriority.NORMAL);
+        List<LlmPriority> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> acquireAndRecord(limiter, LlmPriority.BATCH, order));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> limiter.getQueueDepth() == 1);
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> acquireAndRecord(limiter, LlmPriority.INTERACTIVE, order));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> limiter.getQueueDepth() == 2);
+
+        permit.close();
+        CompletableFuture.allOf(batch, interactive).join();
+
+        assertThat(order).containsExactly(LlmPriority.INTERACTIVE, LlmPriority.BATCH);
+        assertThat(limiter.getActiveCount()).isZero();
+    }
+
+    private static void acquireAndRecord(LlmConcurrencyLimiter limiter, LlmPriority priority, List<LlmPriority> order) {
+        try (LlmConcurrencyLimiter.Permit permit = limiter.acquire(priority)) {
+            order.add(priority);
+        }
+    }
+}
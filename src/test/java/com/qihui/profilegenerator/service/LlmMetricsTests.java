@@ -0,0 +1,54 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmMetricsTests {
+
+    @Test
+    void recordsFirstTokenOnceAndUsageFromLastChunk() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LlmMetrics.StreamCall call = new LlmMetrics(registry).startStream("v1");
+
+        call.onResponse(response("", null), "");
+        call.onResponse(response("zh: ", new DefaultUsage(120, 2)), "zh: ");
+        call.onResponse(response("done", new DefaultUsage(120, 5)), "done");
+        call.finish(SignalType.ON_COMPLETE);
+
+        assertThat(registry.get("llm.stream.first-token").tag("prompt.version", "v1").timer().count()).isEqualTo(1);
+        assertThat(registry.get("llm.stream.duration").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("llm.output.chars").counter().count()).isEqualTo(8);
+        assertThat(registry.get("llm.tokens").tag("type", "prompt").counter().count()).isEqualTo(120);
+        assertThat(registry.get("llm.tokens").tag("type", "completion").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void recordsCancelledCallWithoutFirstToken() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LlmMetrics.StreamCall call = new LlmMetrics(registry).startStream("v1");
+
+        call.finish(SignalType.CANCEL);
+
+        assertThat(registry.find("llm.stream.first-token").timer()).isNull();
+        assertThat(registry.get("llm.stream.duration").tag("outcome", "cancelled").timer().count()).isEqualTo(1);
+        assertThat(registry.find("llm.tokens").counter()).isNull();
+    }
+
+    private static ChatResponse response(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (usage != null) {
+            metadata.usage(usage);
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class NodeWorkerPoolHtmlRendererTests {
+
+    private final YamlConfigParser parser = new YamlConfigParser();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NodeWorkerPoolHtmlRenderer renderer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        assumeTrue(nodeAvailable(), "需要安装Node.js");
+        renderer = new NodeWorkerPoolHtmlRenderer(meterRegistry, 1, 10000, 30,
+                "src/main/resources/static/profile_website");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (renderer != null) {
+            renderer.close();
+        }
+    }
+
+    @Test
+    void rendersSameHtmlAsJavaRenderer() throws IOException {
+        TemplateHtmlRenderer javaRenderer = new TemplateHtmlRenderer(
+                new ClassPathResource("static/profile_website/template.html"));
+        ProfileConfigs configs = configs("basic:\n  name: \"张三\"\n  roles:\n    - no\n  links: []\n",
+                "basic:\n  name: Zhang San\n");
+
+        assertThat(render(renderer, configs)).isEqualTo(render(javaRenderer, configs));
+        // 同一进程处理后续请求
+        assertThat(render(renderer, configs)).isEqualTo(render(javaRenderer, configs));
+    }
+
+    @Test
+    void keepsServingAfterRenderErrorAndCrash() throws Exception {
+        ProfileConfigs valid = configs("basic:\n  name: 张三\n", "basic:\n  name: Zhang San\n");
+        ProfileConfigs invalid = new ProfileConfigs("test", "basic: [", "basic: {}", null, null);
+
+        assertThatThrownBy(() -> render(renderer, invalid)).isInstanceOf(IOException.class)
+                .hasMessageContaining("生成HTML失败");
+        assertThat(render(renderer, valid)).contains("Zhang San");
+
+        // 结束进程后重新启动
+        List<ProcessHandle> workers = workers();
+        assertThat(workers).hasSize(1);
+        for (ProcessHandle worker : workers) {
+            worker.destroyForcibly();
+            worker.onExit().get(5, TimeUnit.SECONDS);
+        }
+        assertThat(render(renderer, valid)).contains("Zhang San");
+        assertThat(meterRegistry.get("profile.renderer.node.restarts").counter().count()).isEqualTo(1);
+    }
+
+    private ProfileConfigs configs(String zhYaml, String enYaml) {
+        return new ProfileConfigs("test", zhYaml, enYaml, parser.parse(zhYaml), parser.parse(enYaml));
+    }
+
+    private static String render(StandaloneHtmlRenderer renderer, ProfileConfigs configs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(configs, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<ProcessHandle> workers() {
+        return ProcessHandle.current().children()
+                .filter(child -> child.info().commandLine().orElse("").contains("render-worker.js"))
+                .toList();
+    }
+
+    private static boolean nodeAvailable() {
+        try {
+            Process process = new ProcessBuilder("node", "--version").redirectErrorStream(true).start();
+            process.getInputStream().readAllBytes();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelBranchesTests {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsResultsOfBothBranches() throws IOException {
+        ParallelBranches.Results<String, Integer> results =
+                ParallelBranches.forkJoin(executor, () -> "signed", () -> 42);
+
+        assertThat(results.forked()).isEqualTo("signed");
+        assertThat(results.inline()).isEqualTo(42);
+    }
+
+    @Test
+    void inlineFailureCancelsForkedBranchAndWaitsForIt() {
+        CountDownLatch forkedStarted = new CountDownLatch(1);
+        AtomicBoolean forkedInterrupted = new AtomicBoolean();
+        AtomicBoolean forkedFinished = new AtomicBoolean();
+
+        assertThatThrownBy(() -> ParallelBranches.forkJoin(executor, () -> {
+            forkedStarted.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                forkedInterrupted.set(true);
+            } finally {
+                forkedFinished.set(true);
+            }
+            return null;
+        }, () -> {
+            // 等forked分支开始执行后再失败
+            while (forkedStarted.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            throw new IOException("上传失败");
+        })).isInstanceOf(IOException.class).hasMessage("上传失败");
+
+        // 抛出异常前forked分支已结束
+        assertThat(forkedInterrupted).isTrue();
+        assertThat(forkedFinished).isTrue();
+    }
+
+    @Test
+    void forkedFailureIsRethrownAfterInlineBranch() {
+        AtomicBoolean inlineRan = new AtomicBoolean();
+
+        assertThatThrownBy(() -> ParallelBranches.forkJoin(executor,
+                () -> {
+                    throw new IOException("签名失败");
+                },
+                () -> {
+                    inlineRan.set(true);
+                    return null;
+                })).isInstanceOf(IOException.class).hasMessage("签名失败");
+        assertThat(inlineRan).isTrue();
+    }
+
+    @Test
+    void runsBothBranchesOnCallerWhenExecutorRejects() throws IOException {
+        Thread caller = Thread.currentThread();
+
+        ParallelBranches.Results<Thread, Thread> results = ParallelBranches.forkJoin(
+                command -> {
+                    throw new RejectedExecutionException("队列已满");
+                },
+                Thread::currentThread, Thread::currentThread);
+
+        assertThat(results.forked()).isSameAs(caller);
+        assertThat(results.inline()).isSameAs(caller);
+    }
+}
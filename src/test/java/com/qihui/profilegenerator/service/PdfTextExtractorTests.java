@@ -0,0 +1,116 @@
+package com.qihui.profilegenerator.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
+import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfTextExtractorTests {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    PdfTextExtractorTests() {
+        executor.setCorePoolSize(4);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void matchesSequentialReaderAcrossPageRanges(@TempDir Path tempDir) throws IOException {
+        byte[] pdf = createPdf(7);
+        Path pdfFile = tempDir.resolve("resume.pdf");
+        Files.write(pdfFile, pdf);
+
+        PdfDocumentReaderConfig config = PdfDocumentReaderConfig.builder()
+                .withPageTopMargin(70)
+                .withPageBottomMargin(70)
+                .build();
+        String expected = new PagePdfDocumentReader(new ByteArrayResource(pdf), config).get().stream()
+                .map(Document::getText)
+                .collect(Collectors.joining("\n"));
+
+        PdfTextExtractor extractor = new PdfTextExtractor(executor, 50, 2, 30000);
+        assertThat(extractor.extract(new ByteArrayResource(pdf))).isEqualTo(expected);
+        assertThat(extractor.extract(new FileSystemResource(pdfFile))).isEqualTo(expected);
+        assertThat(expected).containsPattern("Page\\s+1\\s+line 0").containsPattern("Page\\s+7\\s+line 9");
+    }
+
+    @Test
+    void rejectsDocumentsOverPageCap() throws IOException {
+        PdfTextExtractor extractor = new PdfTextExtractor(executor, 3, 2, 30000);
+
+        assertThatThrownBy(() -> extractor.extract(new ByteArrayResource(createPdf(4))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("页数超过上限");
+    }
+
+    @Test
+    void stopsAllRangesOnTimeout() throws IOException {
+        // 每页内容很多，单页提取就会超过时间预算
+        byte[] pdf = createPdf(4, 20000);
+        PdfTextExtractor extractor = new PdfTextExtractor(executor, 50, 1, 100);
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> extractor.extract(new ByteArrayResource(pdf)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("超时");
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+
+        // 调用方返回后其余页段也很快停止，不继续占用线程池
+        long idleDeadline = System.currentTimeMillis() + 1000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < idleDeadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(executor.getActiveCount()).isZero();
+    }
+
+    private static byte[] createPdf(int pages) throws IOException {
+        return createPdf(pages, 10);
+    }
+
+    private static byte[] createPdf(int pages, int linesPerPage) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 680);
+                    for (int line = 0; line < linesPerPage; line++) {
+                        content.showText("Page " + i + " line " + line);
+                        content.newLineAtOffset(0, -16);
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
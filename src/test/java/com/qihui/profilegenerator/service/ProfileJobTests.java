@@ -0,0 +1,117 @@
+package com.qihui.profilegenerator.service;
+
+import com.qihui.profilegenerator.dto.ResumeResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileJobTests {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void coalescesOutputWhenSubscriberQueueIsFull() {
+        List<Runnable> pending = new ArrayList<>();
+        ProfileJob job = new ProfileJob("job", "key", pending::add, 4);
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        job.subscribe(emitter);
+        job.markRunning();
+
+        for (int i = 0; i < 1000; i++) {
+            job.onOutput("a");
+        }
+        job.onStageStarted(ProfileStage.YAML_WRITE);
+
+        // 没有发送任务执行时事件只在队列中等待，只提交了一个发送任务
+        assertThat(emitter.events).isEmpty();
+        assertThat(pending).hasSize(1);
+        pending.get(0).run();
+
+        List<String> outputs = emitter.events.stream()
+                .filter(event -> event.startsWith("event:output"))
+                .toList();
+        assertThat(outputs.size()).isLessThanOrEqualTo(4);
+        String output = outputs.stream()
+                .map(event -> event.substring(event.indexOf("data:") + 5).strip())
+                .collect(Collectors.joining());
+        assertThat(output).isEqualTo("a".repeat(1000));
+        assertThat(emitter.events.get(emitter.events.size() - 1)).startsWith("event:stage");
+    }
+
+    @Test
+    void stalledSubscriberDoesNotBlockPipeline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ProfileJob job = new ProfileJob("job", "key", executor, 16);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        job.subscribe(emitter);
+
+        // 客户端不接收时流水线线程和查询都不等待
+        long start = System.nanoTime();
+        job.markRunning();
+        for (int i = 0; i < 100; i++) {
+            job.onOutput("chunk");
+        }
+        assertThat(job.toResponse().getStatus()).isEqualTo("RUNNING");
+        job.complete(ResumeResponse.error("失败"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(emitter.completed).isFalse();
+
+        release.countDown();
+        assertThat(emitter.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.events.get(emitter.events.size() - 1)).startsWith("event:failed");
+    }
+
+    /**
+     * 记录发送的事件，release不为null时每次发送都等待其释放
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeConversionCacheTests {
+
+    private static final String YAML = "basic:\n  name: 张三\n---\nbasic:\n  name: Zhang San\n";
+
+    @TempDir
+    Path persistDir;
+
+    @Test
+    void returnsCachedYamlAndCountsHitsAndMisses() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResumeConversionCache cache = new ResumeConversionCache(registry, 10, 1, "", 2000, 200, 30);
+        String key = cache.key("简历", "https://oss/a.pdf", "v1");
+
+        assertThat(cache.get(key)).isEmpty();
+        cache.put(key, YAML);
+        assertThat(cache.get(key)).contains(YAML);
+        // 输入的任一部分不同都是不同的键
+        assertThat(cache.get(cache.key("简历", "https://oss/a.pdf", "v2"))).isEmpty();
+        assertThat(cache.key("简历", "https://oss/a.pdf", "v1")).isEqualTo(key);
+
+        assertThat(registry.get("profile.conversion.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("profile.conversion.cache.requests").tag("result", "miss").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void ignoresBlankYaml() throws IOException {
+        ResumeConversionCache cache = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 1,
+                persistDir.toString(), 2000, 200, 30);
+        String key = cache.key("简历", "", "v1");
+
+        cache.put(key, "  \n");
+
+        assertThat(cache.get(key)).isEmpty();
+        assertThat(Files.exists(persistDir.resolve(key + ".yaml"))).isFalse();
+    }
+
+    @Test
+    void readsPersistedYamlAfterRestart() throws IOException {
+        ResumeConversionCache first = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 1,
+                persistDir.toString(), 2000, 200, 30);
+        String key = first.key("简历", "", "v1");
+        first.put(key, YAML);
+
+        // 新实例的内存缓存为空，从持久化目录读取
+        ResumeConversionCache second = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 1,
+                persistDir.toString(), 2000, 200, 30);
+        assertThat(second.get(key)).contains(YAML);
+
+        // 超过过期时间的文件不再使用，启动时即被清理
+        Files.setLastModifiedTime(persistDir.resolve(key + ".yaml"),
+                FileTime.fromMillis(System.currentTimeMillis() - 1000));
+        ResumeConversionCache expired = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 0,
+                persistDir.toString(), 2000, 200, 30);
+        assertThat(expired.get(key)).isEmpty();
+        assertThat(Files.exists(persistDir.resolve(key + ".yaml"))).isFalse();
+    }
+
+    @Test
+    void sweepsExpiredAndOldestFilesBeyondLimits() throws IOException {
+        long now = System.currentTimeMillis();
+        Path expired = persist("expired.yaml", 10, now - 2 * 3600_000L);
+        Path orphan = persist("interrupted.tmp", 10, now - 2 * 3600_000L);
+        Path unrelated = persist("notes.txt", 10, now - 2 * 3600_000L);
+        for (int i = 0; i < 5; i++) {
+            persist("file" + i + ".yaml", 10, now - (5 - i) * 1000L);
+        }
+
+        // 启动时清理：过期文件和遗留的临时文件被删除，只保留最新的3个缓存文件
+        ResumeConversionCache cache = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 1,
+                persistDir.toString(), 3, 200, 30);
+        assertThat(Files.exists(expired)).isFalse();
+        assertThat(Files.exists(orphan)).isFalse();
+        assertThat(Files.exists(unrelated)).isTrue();
+        assertThat(persisted()).containsExactlyInAnyOrder("file2.yaml", "file3.yaml", "file4.yaml");
+
+        // 写入新的缓存后再清理，最旧的文件被删除
+        String key = cache.key("简历", "", "v1");
+        cache.put(key, YAML);
+        assertThat(cache.sweep()).isEqualTo(1);
+        assertThat(persisted()).containsExactlyInAnyOrder("file3.yaml", "file4.yaml", key + ".yaml");
+        cache.close();
+    }
+
+    @Test
+    void sweepKeepsNewestFilesWithinSizeLimit() throws IOException {
+        long now = System.currentTimeMillis();
+        persist("old.yaml", 600 * 1024, now - 2000);
+        persist("new.yaml", 600 * 1024, now - 1000);
+
+        // 上限1MB只能保留最新的一个
+        ResumeConversionCache cache = new ResumeConversionCache(new SimpleMeterRegistry(), 10, 1,
+                persistDir.toString(), 2000, 1, 30);
+
+        assertThat(persisted()).containsExactly("new.yaml");
+        cache.close();
+    }
+
+    private Path persist(String name, int size, long modifiedMs) throws IOException {
+        Path file = persistDir.resolve(name);
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMs));
+        return file;
+    }
+
+    private List<String> persisted() throws IOException {
+        try (Stream<Path> files = Files.list(persistDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".yaml"))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneExecution() throws Exception {
+        SingleFlight<String, List<String>> flight = new SingleFlight<>(ArrayList::new);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<ProfileStage> followerStages = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> call(flight, "a",
+                ProfileProgressListener.NOOP, progress -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    progress.onStageStarted(ProfileStage.LLM);
+                    return new ArrayList<>(List.of("result"));
+                }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<List<String>> follower = CompletableFuture.supplyAsync(() -> call(flight, "a",
+                new ProfileProgressListener() {
+                    @Override
+                    public void onStageStarted(ProfileStage stage) {
+                        followerStages.add(stage);
+                    }
+                }, progress -> {
+                    executions.incrementAndGet();
+                    return List.of("duplicate");
+                }));
+        // 等待后到的请求合并进来
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("result");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).containsExactly("result")
+                .isNotSameAs(leader.get());
+        assertThat(executions).hasValue(1);
+        assertThat(followerStages).containsExactly(ProfileStage.LLM);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    void failureIsSharedAndNextCallRunsAgain() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(value -> value);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> call(flight, "a",
+                ProfileProgressListener.NOOP, progress -> {
+                    started.countDown();
+                    await(release);
+                    throw new IOException("boom");
+                }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> call(flight, "a",
+                ProfileProgressListener.NOOP, progress -> "unused"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("boom");
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("boom");
+        // 执行结束后不保留结果
+        assertThat(flight.execute("a", ProfileProgressListener.NOOP, progress -> "again")).isEqualTo("again");
+    }
+
+    private static <V> V call(SingleFlight<String, V> flight, String key, ProfileProgressListener listener,
+                              SingleFlight.Call<V> call) {
+        try {
+            return flight.execute(key, listener, call);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.qihui.profilegenerator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpillingArtifactStoreTests {
+
+    @TempDir
+    Path scratchDir;
+
+    @Test
+    void keepsSmallArtifactsInMemoryAndSpillsLargeOnes() throws IOException {
+        SpillingArtifactStore store = store(1);
+        byte[] large = new byte[4096];
+        large[4095] = 7;
+
+        store.put("a", "zh.yaml", "name: 张三".getBytes(StandardCharsets.UTF_8));
+        store.put("a", "big.bin", large);
+
+        assertThat(store.get("a", "zh.yaml")).get().extracting(ArtifactStore.Artifact::text).isEqualTo("name: 张三");
+        assertThat(store.get("a", "big.bin")).get().extracting(ArtifactStore.Artifact::bytes).isEqualTo(large);
+        assertThat(store.get("b", "zh.yaml")).isEmpty();
+        assertThat(files()).hasSize(1);
+
+        // 替换和关闭时删除溢出文件
+        store.put("a", "big.bin", new byte[1]);
+        assertThat(files()).isEmpty();
+        store.put("a", "big.bin", large);
+        store.close();
+        assertThat(files()).isEmpty();
+        assertThat(store.get("a", "zh.yaml")).isEmpty();
+    }
+
+    @Test
+    void putIfAbsentKeepsNewerContent() throws IOException {
+        SpillingArtifactStore store = store(1);
+        store.putIfAbsent("a", "zh.yaml", "name: 旧".getBytes(StandardCharsets.UTF_8));
+        assertThat(store.get("a", "zh.yaml").orElseThrow().text()).isEqualTo("name: 旧");
+
+        // 已有内容时不覆盖，没有保存的溢出文件被删除
+        store.put("a", "zh.yaml", "name: 新".getBytes(StandardCharsets.UTF_8));
+        store.putIfAbsent("a", "zh.yaml", "name: 旧".getBytes(StandardCharsets.UTF_8));
+        store.putIfAbsent("a", "zh.yaml", new byte[4096]);
+        assertThat(store.get("a", "zh.yaml").orElseThrow().text()).isEqualTo("name: 新");
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void readsDoNotShareBufferPosition() throws IOException {
+        SpillingArtifactStore store = store(1);
+        store.put("a", "en.yaml", "name: Zhang San".getBytes(StandardCharsets.UTF_8));
+
+        ArtifactStore.Artifact first = store.get("a", "en.yaml").orElseThrow();
+        first.content().get(new byte[4]);
+
+        assertThat(store.get("a", "en.yaml").orElseThrow().text()).isEqualTo("name: Zhang San");
+        assertThatThrownBy(() -> first.content().put(0, (byte) 1)).isInstanceOf(ReadOnlyBufferException.class);
+    }
+
+    @Test
+    void replaceRemovesArtifactsMissingFromTheNewSet() throws IOException {
+        SpillingArtifactStore store = store(1);
+        store.put("a", "config.yaml", "name: 张三".getBytes(StandardCharsets.UTF_8));
+        store.put("a", "big.bin", new byte[4096]);
+        store.put("ab", "zh.yaml", "name: 李四".getBytes(StandardCharsets.UTF_8));
+
+        store.replace("a", Map.of(
+                "zh.yaml", "name: 张三".getBytes(StandardCharsets.UTF_8),
+                "en.yaml", "name: Zhang San".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(store.get("a", "zh.yaml")).get().extracting(ArtifactStore.Artifact::text).isEqualTo("name: 张三");
+        assertThat(store.get("a", "en.yaml")).get().extracting(ArtifactStore.Artifact::text).isEqualTo("name: Zhang San");
+        assertThat(store.get("a", "config.yaml")).isEmpty();
+        assertThat(store.get("a", "big.bin")).isEmpty();
+        assertThat(files()).isEmpty();
+        // 其他key不受影响
+        assertThat(store.get("ab", "zh.yaml")).isPresent();
+    }
+
+    @Test
+    void serializesHoldersOfTheSameKey() throws Exception {
+        SpillingArtifactStore store = store(1);
+        CompletableFuture<Void> other;
+        try (ArtifactStore.KeyLock lock = store.lock("a")) {
+            other = CompletableFuture.runAsync(() -> {
+                try (ArtifactStore.KeyLock second = store.lock("a")) {
+                    // 获得锁即可
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // 其他key不受影响
+            try (ArtifactStore.KeyLock unrelated = store.lock("b")) {
+                assertThatThrownBy(() -> other.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            }
+        }
+        other.get(5, TimeUnit.SECONDS);
+    }
+
+    private SpillingArtifactStore store(long spillThresholdKb) throws IOException {
+        return new SpillingArtifactStore(new SimpleMeterRegistry(), 16, 1, 16, spillThresholdKb, scratchDir.toString());
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(scratchDir)) {
+            return files.toList();
+        }
+    }
+}
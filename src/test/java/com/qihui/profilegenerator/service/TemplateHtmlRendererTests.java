@@ -0,0 +1,86 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateHtmlRendererTests {
+
+    private final YamlConfigParser parser = new YamlConfigParser();
+
+    @Test
+    void injectsConfigsLikeJsonStringify() throws IOException {
+        TemplateHtmlRenderer renderer = new TemplateHtmlRenderer(
+                new ClassPathResource("static/profile_website/template.html"));
+        String zhYaml = "basic:\n  name: \"张三\"\n  roles:\n    - no\n  links: []\n  extra: {}\n";
+        String enYaml = "basic:\n  name: Zhang San\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(new ProfileConfigs("test", zhYaml, enYaml, parser.parse(zhYaml), parser.parse(enYaml)), out);
+        String html = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(html).doesNotContain("CONFIG_PLACEHOLDER_ZH", "CONFIG_PLACEHOLDER_EN");
+        assertThat(html).contains("""
+                content = {
+                  "basic": {
+                    "name": "张三",
+                    "roles": [
+                      "no"
+                    ],
+                    "links": [],
+                    "extra": {}
+                  }
+                };""");
+        assertThat(html).contains("""
+                content = {
+                  "basic": {
+                    "name": "Zhang San"
+                  }
+                };""");
+        assertThat(html.indexOf("张三")).isLessThan(html.indexOf("Zhang San"));
+    }
+
+    @Test
+    void incrementalRenderMatchesFullRender() throws IOException {
+        TemplateHtmlRenderer renderer = new TemplateHtmlRenderer(
+                new ClassPathResource("static/profile_website/template.html"));
+        String zhYaml = "basic:\n  name: 张三\n";
+        String enYaml = "basic:\n  name: Zhang San\n";
+        String editedEn = "basic:\n  name: San Zhang\n";
+        renderer.renderPage(new ProfileConfigs("test", zhYaml, enYaml, parser.parse(zhYaml), parser.parse(enYaml)), null);
+
+        // 未变化的中文配置传入不同的解析结果，输出仍应使用缓存的片段
+        RenderedHtml incremental = renderer.renderPage(
+                new ProfileConfigs("test", zhYaml, editedEn, Map.of(), parser.parse(editedEn)), ProfileLanguage.EN);
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        new TemplateHtmlRenderer(new ClassPathResource("static/profile_website/template.html"))
+                .render(new ProfileConfigs("test", zhYaml, editedEn, parser.parse(zhYaml), parser.parse(editedEn)), full);
+
+        assertThat(new String(incremental.html(), StandardCharsets.UTF_8)).isEqualTo(full.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipFromSegmentsDecompressesToHtml() throws IOException {
+        TemplateHtmlRenderer renderer = new TemplateHtmlRenderer(
+                new ClassPathResource("static/profile_website/template.html"));
+        String zhYaml = "basic:\n  name: 张三\n";
+        String enYaml = "basic:\n  name: Zhang San\n";
+
+        RenderedHtml page = renderer.renderPage(
+                new ProfileConfigs("test", zhYaml, enYaml, parser.parse(zhYaml), parser.parse(enYaml)), null);
+
+        // GZIPInputStream会校验尾部的CRC32和长度
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(page.html());
+        }
+        assertThat(page.gzip().length).isLessThan(page.html().length / 2);
+    }
+}
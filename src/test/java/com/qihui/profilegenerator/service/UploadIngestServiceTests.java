@@ -0,0 +1,317 @@
+package com.qihui.profilegenerator.service;
+
+import com.aliyun.oss.ClientException;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadResult;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.aliyun.oss.model.UploadPartResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadIngestServiceTests {
+
+    private static final int PART_SIZE = 100 * 1024;
+    private static final String OSS_PATH = "alice/resume.pdf";
+    private static final String OBJECT_NAME = "resumes/" + OSS_PATH;
+
+    @TempDir
+    Path spoolDir;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private FakeOss fakeOss;
+    private UploadIngestService ingestService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+        fakeOss = new FakeOss();
+        OssService ossService = new OssService(fakeOss.client(), null);
+        ReflectionTestUtils.setField(ossService, "bucketName", "bucket");
+        ReflectionTestUtils.setField(ossService, "dirPrefix", "resumes/");
+        // 分片100KB，超过150KB转存临时文件
+        ingestService = new UploadIngestService(ossService, new ContentTypeDetector(), executor,
+                new SimpleMeterRegistry(), 100, 150, 8192, spoolDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void uploadsContentBelowOnePartWithSinglePut() throws Exception {
+        byte[] data = pdf(50 * 1024);
+
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(data), OSS_PATH)) {
+            assertThat(upload.awaitUpload()).isEqualTo(OBJECT_NAME);
+            assertThat(upload.spoolFile()).isNull();
+            assertThat(upload.content().getContentAsByteArray()).isEqualTo(data);
+        }
+        assertThat(fakeOss.calls()).containsExactly("putObject");
+        assertThat(fakeOss.objects.get(OBJECT_NAME)).isEqualTo(data);
+    }
+
+    @Test
+    void uploadsContentAboveOnePartInParts() throws Exception {
+        byte[] data = pdf(PART_SIZE * 2 + PART_SIZE / 2);
+
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(data), OSS_PATH)) {
+            assertThat(upload.awaitUpload()).isEqualTo(OBJECT_NAME);
+            // 超过暂存阈值的内容转存到临时文件，关闭后删除
+            assertThat(upload.spoolFile()).exists();
+            assertThat(upload.content().getContentAsByteArray()).isEqualTo(data);
+        }
+        assertThat(files()).isEmpty();
+        assertThat(fakeOss.calls()).containsExactly("initiateMultipartUpload",
+                "uploadPart", "uploadPart", "uploadPart", "completeMultipartUpload");
+        assertThat(fakeOss.partSizes()).containsExactly(PART_SIZE, PART_SIZE, PART_SIZE / 2);
+        assertThat(fakeOss.objects.get(OBJECT_NAME)).isEqualTo(data);
+    }
+
+    @Test
+    void doesNotUploadEmptyTrailingPartAtPartSizeBoundary() throws Exception {
+        byte[] onePart = pdf(PART_SIZE);
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(onePart), OSS_PATH)) {
+            upload.awaitUpload();
+        }
+        assertThat(fakeOss.partSizes()).containsExactly(PART_SIZE);
+        assertThat(fakeOss.objects.get(OBJECT_NAME)).isEqualTo(onePart);
+
+        fakeOss.reset();
+        byte[] twoParts = pdf(PART_SIZE * 2);
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(twoParts), OSS_PATH)) {
+            upload.awaitUpload();
+            assertThat(upload.size()).isEqualTo(PART_SIZE * 2);
+        }
+        assertThat(fakeOss.partSizes()).containsExactly(PART_SIZE, PART_SIZE);
+        assertThat(fakeOss.objects.get(OBJECT_NAME)).isEqualTo(twoParts);
+    }
+
+    @Test
+    void abortsAfterPartFailureAndUploadsNoPartAfterAbort() throws Exception {
+        // 第2个分片立即失败，其余分片较慢，失败时仍有分片在上传或排队
+        fakeOss.failPart = partNumber -> partNumber == 2;
+        fakeOss.partDelayMs = 50;
+        byte[] data = pdf(PART_SIZE * 8);
+
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(data), OSS_PATH)) {
+            assertThatThrownBy(upload::awaitUpload).isInstanceOf(IOException.class);
+        }
+        Thread.sleep(200);
+
+        List<String> calls = fakeOss.calls();
+        assertThat(calls).contains("abortMultipartUpload").doesNotContain("completeMultipartUpload");
+        assertThat(calls.subList(calls.indexOf("abortMultipartUpload"), calls.size()))
+                .containsExactly("abortMultipartUpload");
+        assertThat(fakeOss.objects).doesNotContainKey(OBJECT_NAME);
+    }
+
+    @Test
+    void abortsWhenUploadStreamFailsMidway() {
+        byte[] data = pdf(PART_SIZE * 3);
+        InputStream failing = new FilterInputStream(new ByteArrayInputStream(data, 0, PART_SIZE * 2 + 10)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read == -1) {
+                    throw new IOException("客户端断开");
+                }
+                return read;
+            }
+        };
+
+        assertThatThrownBy(() -> ingestService.ingest(failing, OSS_PATH)).hasMessage("客户端断开");
+
+        List<String> calls = fakeOss.calls();
+        assertThat(calls).endsWith("abortMultipartUpload").doesNotContain("completeMultipartUpload");
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void reportsSha256AndSniffedContentType() throws Exception {
+        byte[] data = pdf(PART_SIZE + 1);
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(data), OSS_PATH,
+                Set.of(ContentTypeDetector.PDF))) {
+            assertThat(upload.sha256()).isEqualTo(expected);
+            assertThat(upload.contentType()).isEqualTo(ContentTypeDetector.PDF);
+            upload.awaitUpload();
+        }
+
+        byte[] text = "姓名：张三\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        try (IngestedUpload upload = ingestService.ingest(new ByteArrayInputStream(text), "alice/resume.txt")) {
+            assertThat(upload.contentType()).isEqualTo(ContentTypeDetector.TEXT);
+            upload.awaitUpload();
+        }
+    }
+
+    @Test
+    void rejectsUnacceptedTypeBeforeUploading() {
+        byte[] text = "姓名：张三\n".repeat(20000).getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> ingestService.ingest(new ByteArrayInputStream(text), OSS_PATH,
+                Set.of(ContentTypeDetector.PDF)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(ContentTypeDetector.TEXT);
+        assertThat(fakeOss.calls()).isEmpty();
+        assertThat(files()).isEmpty();
+    }
+
+    private static byte[] pdf(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        byte[] header = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(header, 0, data, 0, Math.min(header.length, size));
+        return data;
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 内存中的OSS客户端替身，按顺序记录调用，分片可配置延迟和失败
+     */
+    private static final class FakeOss implements InvocationHandler {
+
+        private final List<String> calls = new ArrayList<>();
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+        private volatile IntPredicate failPart = partNumber -> false;
+        private volatile long partDelayMs;
+
+        OSS client() {
+            return (OSS) Proxy.newProxyInstance(OSS.class.getClassLoader(), new Class<?>[]{OSS.class}, this);
+        }
+
+        List<String> calls() {
+            synchronized (calls) {
+                return List.copyOf(calls);
+            }
+        }
+
+        void reset() {
+            synchronized (calls) {
+                calls.clear();
+            }
+            objects.clear();
+            parts.clear();
+        }
+
+        List<Integer> partSizes() {
+            return new TreeMap<>(parts).values().stream().map(part -> part.length).toList();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+            switch (method.getName()) {
+                case "toString":
+                    return "FakeOss";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    break;
+            }
+            if (method.getName().equals("uploadPart")) {
+                // 先执行延迟再记录，记录顺序即分片到达OSS的顺序
+                return uploadPart((UploadPartRequest) args[0]);
+            }
+            record(method.getName());
+            return switch (method.getName()) {
+                case "putObject" -> {
+                    objects.put((String) args[1], ((InputStream) args[2]).readAllBytes());
+                    yield new PutObjectResult();
+                }
+                case "initiateMultipartUpload" -> {
+                    InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+                    result.setBucketName(((InitiateMultipartUploadRequest) args[0]).getBucketName());
+                    result.setUploadId("upload-1");
+                    yield result;
+                }
+                case "completeMultipartUpload" -> {
+                    CompleteMultipartUploadRequest request = (CompleteMultipartUploadRequest) args[0];
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    for (PartETag partETag : request.getPartETags()) {
+                        content.write(parts.get(partETag.getPartNumber()));
+                    }
+                    objects.put(request.getKey(), content.toByteArray());
+                    yield new CompleteMultipartUploadResult();
+                }
+                case "abortMultipartUpload" -> {
+                    parts.clear();
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException("OSS替身不支持: " + method);
+            };
+        }
+
+        private UploadPartResult uploadPart(UploadPartRequest request) throws Exception {
+            int partNumber = request.getPartNumber();
+            if (failPart.test(partNumber)) {
+                record("uploadPart");
+                throw new ClientException("分片上传失败: " + partNumber);
+            }
+            Thread.sleep(partDelayMs);
+            byte[] content = request.getInputStream().readAllBytes();
+            record("uploadPart");
+            parts.put(partNumber, content);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(partNumber);
+            result.setETag("etag-" + partNumber);
+            return result;
+        }
+
+        private void record(String call) {
+            synchronized (calls) {
+                calls.add(call);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class YamlConfigRepairerTests {
+
+    private static final String BASIC = "basic:\n  name: \"张三\"\n  roles:\n    - \"工程师\"";
+    private static final String EXPERIENCE = "experience:\n  - company: \"示例公司\"\n    description:\n      - \"负责后端\"";
+    private static final String UI = """
+            ui:
+              nav: {home: "首页"}
+              hero:
+                greeting: "你好"
+                buttons: {contact: "联系我"}
+              experience: {title: "工作经历"}
+              contact: {title: "联系方式"}
+              footer: {rights: "版权所有"}
+              lang: {switch: "中文 / EN"}""";
+
+    private final YamlConfigRepairer repairer =
+            new YamlConfigRepairer(new YamlConfigParser(), new ProfileConfigValidator(), 3);
+    private final List<String> rewritten = new ArrayList<>();
+
+    @Test
+    void acceptsValidConfigWithoutRewriting() throws IOException {
+        YamlConfigRepairer.Result result = repairer.repair(
+                "```yaml\n" + BASIC + "\n" + EXPERIENCE + "\n" + UI + "\n```", this::failRewrite);
+
+        assertThat(result.rewrittenSections()).isEmpty();
+        assertThat(result.yaml()).startsWith("basic:").doesNotContain("```");
+        assertThat(new ArrayList<Object>(((Map<?, ?>) result.config()).keySet())).containsExactly("basic", "experience", "ui");
+    }
+
+    @Test
+    void rewritesOnlyTheSectionWithBrokenSyntax() throws IOException {
+        String broken = "experience:\n  - company: \"示例公司\n    description: [\"负责后端\"";
+
+        YamlConfigRepairer.Result result = repairer.repair(BASIC + "\n" + broken + "\n" + UI,
+                (section, sectionYaml, problem) -> {
+                    rewritten.add(section);
+                    assertThat(sectionYaml).isEqualTo(broken);
+                    assertThat(problem).startsWith("YAML语法错误");
+                    return EXPERIENCE;
+                });
+
+        assertThat(rewritten).containsExactly("experience");
+        assertThat(result.rewrittenSections()).containsExactly("experience");
+        assertThat(result.yaml()).contains(BASIC, EXPERIENCE, "footer:");
+    }
+
+    @Test
+    void rewritesMissingUiSection() throws IOException {
+        YamlConfigRepairer.Result result = repairer.repair(BASIC + "\n" + EXPERIENCE,
+                (section, sectionYaml, problem) -> {
+                    rewritten.add(section);
+                    assertThat(sectionYaml).isEmpty();
+                    return "```yaml\n" + UI + "\n```";
+                });
+
+        assertThat(rewritten).containsExactly("ui");
+        assertThat(((Map<?, ?>) result.config()).get("ui")).isInstanceOf(Map.class);
+    }
+
+    @Test
+    void normalizesWrappedRootAndSingleItemLists() {
+        String wrapped = "zh:\n" + indent(BASIC) + "\n  experience:\n    company: \"示例公司\"\n" + indent(UI);
+
+        YamlConfigRepairer.Check check = repairer.check(wrapped);
+
+        assertThat(check.isValid()).isTrue();
+        assertThat(((Map<?, ?>) check.config()).get("experience")).isInstanceOf(List.class);
+        assertThat(check.yaml()).startsWith("basic:");
+    }
+
+    @Test
+    void failsWhenRewriteDoesNotFixTheSection() {
+        assertThatThrownBy(() -> repairer.repair(BASIC + "\nexperience: 5\n" + UI,
+                (section, sectionYaml, problem) -> "experience: 6"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("experience");
+    }
+
+    private String failRewrite(String section, String sectionYaml, String problem) {
+        throw new AssertionError("不应重写板块: " + section + ", " + problem);
+    }
+
+    private static String indent(String yaml) {
+        return yaml.lines().map(line -> "  " + line).reduce((a, b) -> a + "\n" + b).orElse("");
+    }
+}
@@ -0,0 +1,68 @@
+package com.qihui.profilegenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YamlStreamSplitterTests {
+
+    private final List<String> documents = new ArrayList<>();
+    private final List<Boolean> endOfStreamFlags = new ArrayList<>();
+    private final YamlStreamSplitter splitter = new YamlStreamSplitter((index, document, endOfStream) -> {
+        documents.add(document);
+        endOfStreamFlags.add(endOfStream);
+    });
+
+    @Test
+    void emitsFirstDocumentAsSoonAsSeparatorArrives() throws IOException {
+        splitter.accept("basic:\n  name: \"张");
+        splitter.accept("三\"\n-");
+        assertThat(documents).isEmpty();
+
+        splitter.accept("--\nbasic:\n  name: \"Zhang San\"");
+        assertThat(documents).containsExactly("basic:\n  name: \"张三\"");
+
+        splitter.finish();
+        assertThat(documents).containsExactly("basic:\n  name: \"张三\"", "basic:\n  name: \"Zhang San\"");
+        assertThat(endOfStreamFlags).containsExactly(false, true);
+        assertThat(splitter.getTotalLength()).isEqualTo(
+                "basic:\n  name: \"张三\"\n---\nbasic:\n  name: \"Zhang San\"".length());
+    }
+
+    @Test
+    void keepsDashesInsideValues() throws IOException {
+        splitter.accept("about:\n  description: \"2019 --- 2021\"\n---\nabout: {}\n");
+        splitter.finish();
+
+        assertThat(documents).containsExactly("about:\n  description: \"2019 --- 2021\"", "about: {}");
+    }
+
+    @Test
+    void skipsEmptyLeadingDocument() throws IOException {
+        splitter.accept("---\nbasic: {}\n");
+        splitter.finish();
+
+        assertThat(documents).containsExactly("basic: {}");
+        assertThat(endOfStreamFlags).containsExactly(true);
+    }
+
+    @Test
+    void dropsCodeFencesAndFileNameHeaders() throws IOException {
+        splitter.accept("```yaml\n# zh.yaml\nbasic: {}\n```\n---\n**en.yaml**\n```\nbasic: {}\n```\n");
+        splitter.finish();
+
+        assertThat(documents).containsExactly("basic: {}", "basic: {}");
+    }
+
+    @Test
+    void keepsIndentedSeparatorInsideBlockScalar() throws IOException {
+        splitter.accept("about:\n  description: |\n    A\n    ---\n    B\n---\nabout: {}\n");
+        splitter.finish();
+
+        assertThat(documents).containsExactly("about:\n  description: |\n    A\n    ---\n    B", "about: {}");
+    }
+}